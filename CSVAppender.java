@@ -0,0 +1,215 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived appender that writes CSV lines in batches. A failed batch is
+ * cut off the file and reported to its waiters; later lines carry on.
+ */
+public class CSVAppender implements Closeable, Flushable {
+
+    public static final int DEFAULT_FLUSH_BYTES = 64 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "csv-appender-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final Set<CSVAppender> OPEN = Collections.newSetFromMap(new WeakHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(CSVAppender::flushAll, "csv-appender-shutdown"));
+    }
+
+    private static final class Batch {
+        byte[] bytes;
+        int length;
+        boolean done;
+        IOException error;
+
+        Batch(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    private final FileChannel channel;
+    private final int flushBytes;
+    private final boolean syncOnFlush;
+    private final ScheduledFuture<?> ticker;
+    private Batch current;
+    private Batch writing;
+    private byte[] spare;
+    private long size;
+    private boolean closed;
+
+    public CSVAppender(Path path, String header) throws IOException {
+        this(path, header, DEFAULT_FLUSH_BYTES, DEFAULT_FLUSH_INTERVAL_MILLIS, false);
+    }
+
+    /**
+     * A flush interval of zero disables timed flushing
+     */
+    public CSVAppender(Path path, String header, int flushBytes, long flushIntervalMillis, boolean syncOnFlush) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.flushBytes = flushBytes;
+        this.syncOnFlush = syncOnFlush;
+        this.current = new Batch(new byte[Math.max(flushBytes, 256)]);
+        this.spare = new byte[current.bytes.length];
+        if (header != null && channel.size() == 0) {
+            channel.write(ByteBuffer.wrap((header + "\n").getBytes(StandardCharsets.UTF_8)));
+        }
+        this.size = channel.size();
+        this.ticker = flushIntervalMillis > 0
+                ? FLUSHER.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS)
+                : null;
+        synchronized (OPEN) {
+            OPEN.add(this);
+        }
+    }
+
+    /**
+     * Buffer one line; it reaches the file on the next flush
+     */
+    public void append(String line) throws IOException {
+        Batch batch;
+        synchronized (this) {
+            batch = enqueue(line);
+            if (batch.length < flushBytes) return;
+        }
+        awaitWritten(batch);
+    }
+
+    /**
+     * Buffer one line and wait until it is written
+     */
+    public void appendAndWait(String line) throws IOException {
+        Batch batch;
+        synchronized (this) {
+            batch = enqueue(line);
+        }
+        awaitWritten(batch);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        Batch batch;
+        synchronized (this) {
+            batch = current.length > 0 ? current : writing;
+        }
+        if (batch != null) awaitWritten(batch);
+    }
+
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        try {
+            flush();
+        } finally {
+            if (ticker != null) ticker.cancel(false);
+            channel.close();
+            synchronized (OPEN) {
+                OPEN.remove(this);
+            }
+        }
+    }
+
+    private Batch enqueue(String line) throws IOException {
+        if (closed) throw new IOException("Appender is closed");
+        Batch batch = current;
+        byte[] encoded = line.getBytes(StandardCharsets.UTF_8);
+        int needed = batch.length + encoded.length + 1;
+        if (needed > batch.bytes.length) {
+            batch.bytes = Arrays.copyOf(batch.bytes, Math.max(needed, batch.bytes.length * 2));
+        }
+        System.arraycopy(encoded, 0, batch.bytes, batch.length, encoded.length);
+        batch.length += encoded.length;
+        batch.bytes[batch.length++] = '\n';
+        return batch;
+    }
+
+    /**
+     * Group commit: whoever finds no write in progress writes the whole current batch
+     */
+    private void awaitWritten(Batch batch) throws IOException {
+        while (true) {
+            synchronized (this) {
+                while (!batch.done && writing != null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted waiting for flush");
+                    }
+                }
+                if (batch.done) {
+                    if (batch.error == null) return;
+                    throw new IOException("Write to CSV file failed: " + batch.error.getMessage(), batch.error);
+                }
+                writing = current;
+                current = new Batch(spare != null ? spare : new byte[writing.bytes.length]);
+                spare = null;
+            }
+            Batch w = writing;
+            IOException error = null;
+            try {
+                ByteBuffer bb = ByteBuffer.wrap(w.bytes, 0, w.length);
+                while (bb.hasRemaining()) {
+                    channel.write(bb);
+                }
+                if (syncOnFlush) channel.force(false);
+            } catch (IOException e) {
+                error = e;
+                try {
+                    channel.truncate(size);
+                } catch (IOException ignored) {
+                }
+            }
+            synchronized (this) {
+                if (error == null) size += w.length;
+                w.done = true;
+                w.error = error;
+                spare = w.bytes;
+                w.bytes = null;
+                writing = null;
+                notifyAll();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            synchronized (this) {
+                if (closed || current.length == 0) return;
+            }
+            flush();
+        } catch (IOException e) {
+            System.err.println("CSV flush failed: " + e.getMessage());
+        }
+    }
+
+    private static void flushAll() {
+        List<CSVAppender> open;
+        synchronized (OPEN) {
+            open = new ArrayList<>(OPEN);
+        }
+        for (CSVAppender appender : open) {
+            appender.flushQuietly();
+        }
+    }
+}
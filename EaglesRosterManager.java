@@ -7,12 +7,6 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Map;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
@@ -23,13 +17,25 @@ public class EaglesRosterManager {
     private final String coachName = "Nick Sirianni";
     private final String stadiumName = "Lincoln Financial Field";
     private final String description = "Based in Philadelphia, Pennsylvania, the Philadelphia Eagles are a professional football team that plays in the National Football League's (NFL) East division of the National Football Conference (NFC). Explore the roster below!";
-    private final java.util.List<Map<String, String>> players = new ArrayList<>();
-    private DefaultListModel<Map<String, String>> playerListModel;
-    private JList<Map<String, String>> rosterList;
+    private final RosterStore roster = new RosterStore();
+    private final RosterRepository repository = new RosterRepository(roster);
+    private final RosterQueryEngine queries = new RosterQueryEngine(roster);
+    private final StartupTimings timings = new StartupTimings();
+    private long rosterStatsVersion = -1;
+    private JFrame frame;
+    private RowListModel playerListModel;
+    private JList<Integer> rosterList;
     private JTextField mainSearch;
     private JComboBox<String> mainRoleDropdown;
     private JComboBox<String> mainTypeDropdown;
     private JComboBox<String> mainSortDropdown;
+    private RosterView mainView;
+    private JProgressBar loadProgress;
+    private JButton editButton;
+    private JButton addButton;
+    private JTextArea statsArea;
+    private long lastLoadRefresh;
+    private Runnable pendingLoadReport;
     private static final Color MIDNIGHT_GREEN = new Color(0, 76, 84);
     private static final Color SILVER = new Color(165, 172, 175);
     private static final Color BLACK = new Color(0, 0, 0);
@@ -37,10 +43,22 @@ public class EaglesRosterManager {
     private static final Color DARK_GREEN = new Color(0, 50, 56);
     private static final Color LIGHT_GREEN = new Color(0, 95, 106);
     private static final Color CHARCOAL = new Color(32, 32, 32);
+    private static final int FILTER_DEBOUNCE_MILLIS = Integer.getInteger("eagles.filterDebounceMillis", 150);
+    private static final long LOAD_REFRESH_MILLIS = 500;
     public EaglesRosterManager() {
     }
-    private void createAndShowGui() {
-        JFrame frame = new JFrame(teamName + " - Roster Manager");
+    RosterStore getRoster() {
+        return roster;
+    }
+    RosterQueryEngine getQueryEngine() {
+        return queries;
+    }
+    /**
+     * Build the main window without showing it
+     */
+    private void buildGui() {
+        timings.begin("gui");
+        frame = new JFrame(teamName + " - Roster Manager");
         frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         frame.setSize(1000, 700);
         frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
@@ -93,11 +111,12 @@ public class EaglesRosterManager {
         rosterTitle.setFont(new Font("Arial", Font.BOLD, 16));
         rosterTitle.setForeground(SILVER);
         leftTopPanel.add(rosterTitle, BorderLayout.WEST);
+        loadProgress = new JProgressBar(0, 1000);
+        loadProgress.setStringPainted(true);
+        loadProgress.setString("Loading…");
+        leftTopPanel.add(loadProgress, BorderLayout.EAST);
         leftPanel.add(leftTopPanel, BorderLayout.NORTH);
-        this.playerListModel = new DefaultListModel<>();
-        for (Map<String, String> p : players) {
-            this.playerListModel.addElement(p);
-        }
+        this.playerListModel = new RowListModel();
         this.rosterList = new JList<>(this.playerListModel);
         rosterList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         rosterList.setBackground(DARK_GREEN);
@@ -106,30 +125,7 @@ public class EaglesRosterManager {
         rosterList.setSelectionForeground(WHITE);
         rosterList.setFont(new Font("Arial", Font.PLAIN, 13));
         rosterList.setBorder(new EmptyBorder(5, 10, 5, 10));
-        rosterList.setCellRenderer(new DefaultListCellRenderer() {
-            @Override
-            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
-                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                if (value instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, String> player = (Map<String, String>) value;
-                    String number = player.getOrDefault("number", "");
-                    String name = player.getOrDefault("name", "");
-                    String position = player.getOrDefault("position", "");
-                    setText("#" + number + " - " + name + " (" + position + ")");
-                    setBorder(new EmptyBorder(8, 10, 8, 10));
-                    if (isSelected) {
-                        setBackground(LIGHT_GREEN);
-                        setForeground(WHITE);
-                        setFont(getFont().deriveFont(Font.BOLD));
-                    } else {
-                        setBackground(DARK_GREEN);
-                        setForeground(WHITE);
-                    }
-                }
-                return this;
-            }
-        });
+        new RosterCellRenderer(roster, DARK_GREEN, LIGHT_GREEN, WHITE).install(rosterList);
         JScrollPane rosterScroll = new JScrollPane(rosterList);
         rosterScroll.setBorder(new LineBorder(MIDNIGHT_GREEN, 2));
         rosterScroll.getViewport().setBackground(DARK_GREEN);
@@ -181,7 +177,7 @@ public class EaglesRosterManager {
             new EmptyBorder(5, 10, 5, 10)
         ));
         searchPanel.add(mainSearch, BorderLayout.CENTER);
-        JButton editButton = new JButton("Edit Roster");
+        editButton = new JButton("Edit Roster");
         searchPanel.add(editButton, BorderLayout.EAST);
         bottom.add(searchPanel, BorderLayout.NORTH);
         JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 20, 10));
@@ -227,8 +223,10 @@ mainRoleDropdown = new JComboBox<>(roles);
                 new LineBorder(SILVER, 1),
                 new EmptyBorder(5, 15, 5, 15)
         ));
-        JButton addButton = new JButton("Add Person");
+        addButton = new JButton("Add Person");
         managePanel.add(addButton);
+        editButton.setEnabled(false);
+        addButton.setEnabled(false);
         bottom.add(managePanel, BorderLayout.SOUTH);
         JPanel statsPanel = new JPanel(new BorderLayout());
         statsPanel.setBackground(DARK_GREEN);
@@ -241,21 +239,14 @@ mainRoleDropdown = new JComboBox<>(roles);
         statsTitle.setForeground(SILVER);
         statsTitle.setBorder(new EmptyBorder(0, 0, 8, 0));
         statsPanel.add(statsTitle, BorderLayout.NORTH);
-        JTextArea stats = new JTextArea();
-        stats.setEditable(false);
-        stats.setBackground(DARK_GREEN);
-        stats.setForeground(WHITE);
-        stats.setFont(new Font("Arial", Font.PLAIN, 13));
-        StringBuilder statsText = new StringBuilder();
-        statsText.append("  • Total Players: ").append(players.size()).append("\n");
-        statsText.append("  • Total Points (This Season): 379\n");
-        statsText.append("  • Total Touchdowns (This Season): 45\n");
-        statsText.append("  • Super Bowls Won: 2\n");
-        statsText.append("  • Total Seasons: 93\n");
-        statsText.append("  • Record (W/L/T): 649/645/27\n");
-        stats.setText(statsText.toString());
-        stats.setBorder(new EmptyBorder(5, 5, 5, 5));
-        JScrollPane statsScroll = new JScrollPane(stats);
+        statsArea = new JTextArea();
+        statsArea.setEditable(false);
+        statsArea.setBackground(DARK_GREEN);
+        statsArea.setForeground(WHITE);
+        statsArea.setFont(new Font("Arial", Font.PLAIN, 13));
+        refreshStats();
+        statsArea.setBorder(new EmptyBorder(5, 5, 5, 5));
+        JScrollPane statsScroll = new JScrollPane(statsArea);
         statsScroll.setBorder(null);
         statsScroll.setPreferredSize(new Dimension(0, 100));
         statsScroll.getViewport().setBackground(DARK_GREEN);
@@ -264,31 +255,46 @@ mainRoleDropdown = new JComboBox<>(roles);
         root.add(bottom, BorderLayout.SOUTH);
         rosterList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                Map<String, String> selected = (Map<String, String>) rosterList.getSelectedValue();
-                if (selected != null) {
-                    details.setText(formatPlayerDetails(selected));
-                } else {
-                    details.setText("");
-                }
+                showDetails(details);
             }
         });
+        mainView = new RosterView(queries, rosterList, playerListModel, FILTER_DEBOUNCE_MILLIS, () -> viewQuery(
+                mainSearch.getText(),
+                (String) mainRoleDropdown.getSelectedItem(),
+                (String) mainTypeDropdown.getSelectedItem(),
+                (String) mainSortDropdown.getSelectedItem()));
+        showFacetCounts(mainView, mainRoleDropdown, mainTypeDropdown);
+        showQueryFailures(mainView, frame);
         mainSearch.getDocument().addDocumentListener(new DocumentListener() {
             @Override
-            public void insertUpdate(DocumentEvent e) { updateMainFilter(); }
+            public void insertUpdate(DocumentEvent e) { mainView.request(); }
             @Override
-            public void removeUpdate(DocumentEvent e) { updateMainFilter(); }
+            public void removeUpdate(DocumentEvent e) { mainView.request(); }
             @Override
-            public void changedUpdate(DocumentEvent e) { updateMainFilter(); }
+            public void changedUpdate(DocumentEvent e) { mainView.request(); }
         });
         mainRoleDropdown.addActionListener(e -> updateMainFilter());
         mainTypeDropdown.addActionListener(e -> updateMainFilter());
         mainSortDropdown.addActionListener(e -> updateMainFilter());
         editButton.addActionListener(e -> openEditRosterDialog(frame));
-        addButton.addActionListener(e -> openAddPersonDialog(frame, this::updateMainFilter));
+        addButton.addActionListener(e -> openAddPersonDialog(frame));
+        repository.addListener(changes -> {
+            mainView.rosterChanged(changes);
+            refreshStats();
+            showDetails(details);
+        });
+        repository.onCompactionFailed(error -> JOptionPane.showMessageDialog(frame,
+                "Failed to update team.csv: " + error.getMessage() + "\nYour changes are still saved.",
+                "I/O Error", JOptionPane.ERROR_MESSAGE));
         updateMainFilter();
         frame.setContentPane(root);
         frame.addWindowListener(new WindowAdapter() {
     @Override
+    public void windowOpened(WindowEvent e) {
+        timings.end("window");
+        logStartupIfDone();
+    }
+    @Override
     public void windowClosed(WindowEvent e) {
         JPanel msgPanel = new JPanel();
         msgPanel.setLayout(new BoxLayout(msgPanel, BoxLayout.Y_AXIS));
@@ -318,18 +324,110 @@ mainRoleDropdown = new JComboBox<>(roles);
             }
         });
         frame.setIconImage(createEaglesIcon());
+        frame.pack();
+        frame.setSize(1000, 700);
+        frame.setLocationRelativeTo(null);
+        if (pendingLoadReport != null) {
+            pendingLoadReport.run();
+            pendingLoadReport = null;
+        }
+        timings.end("gui");
+    }
+    private void showGui() {
+        timings.begin("window");
         frame.setVisible(true);
     }
-    private String formatPlayerDetails(Map<String, String> player) {
+    private void logStartupIfDone() {
+        if (timings.isDone("window") && timings.isDone("load")) timings.log();
+    }
+    private void refreshStats() {
+        long rosterVersion = roster.statsVersion();
+        if (rosterVersion == rosterStatsVersion) return;
+        rosterStatsVersion = rosterVersion;
+        StringBuilder statsText = new StringBuilder();
+        roster.appendStats(statsText);
+        statsText.append("  • Total Points (This Season): 379\n");
+        statsText.append("  • Total Touchdowns (This Season): 45\n");
+        statsText.append("  • Super Bowls Won: 2\n");
+        statsText.append("  • Total Seasons: 93\n");
+        statsText.append("  • Record (W/L/T): 649/645/27\n");
+        statsArea.setText(statsText.toString());
+    }
+    /**
+     * Load the roster on a background thread; editing stays disabled until it is done
+     */
+    private void startLoading(String filename) {
+        timings.begin("load");
+        new RosterLoader(Paths.get(filename), roster).start(new RosterLoader.Listener() {
+            @Override
+            public void pageLoaded(int rowsLoaded, double fraction) {
+                if (loadProgress == null) return;
+                loadProgress.setValue((int) (fraction * 1000));
+                loadProgress.setString("Loading… " + rowsLoaded);
+                long now = System.currentTimeMillis();
+                if (now - lastLoadRefresh >= LOAD_REFRESH_MILLIS) {
+                    lastLoadRefresh = now;
+                    updateMainFilter();
+                }
+            }
+            @Override
+            public void loaded() throws IOException {
+                repository.openJournal(Paths.get(filename));
+            }
+            @Override
+            public void snapshotFailed(IOException error) {
+                whenBuilt(() -> JOptionPane.showMessageDialog(frame, "Could not use the roster snapshot: " + error.getMessage(),
+                        "Warning", JOptionPane.WARNING_MESSAGE));
+            }
+            @Override
+            public void finished(IOException error) {
+                if (loadProgress == null) {
+                    whenBuilt(() -> finished(error));
+                    return;
+                }
+                loadProgress.setVisible(false);
+                if (error == null) {
+                    editButton.setEnabled(true);
+                    addButton.setEnabled(true);
+                } else {
+                    JOptionPane.showMessageDialog(null, "Error loading players: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+                updateMainFilter();
+                refreshStats();
+                timings.end("load");
+                logStartupIfDone();
+            }
+        });
+    }
+    /**
+     * Run a loader report now, or once the window is built
+     */
+    private void whenBuilt(Runnable report) {
+        if (loadProgress != null) {
+            report.run();
+            return;
+        }
+        Runnable earlier = pendingLoadReport;
+        pendingLoadReport = earlier == null ? report : () -> {
+            earlier.run();
+            report.run();
+        };
+    }
+    private void showDetails(JTextArea details) {
+        Integer selected = rosterList.getSelectedValue();
+        String[] fields = selected == null ? null : roster.liveRow(selected);
+        details.setText(fields == null ? "" : formatPlayerDetails(fields));
+    }
+    private String formatPlayerDetails(String[] fields) {
         StringBuilder sb = new StringBuilder();
         sb.append("═══════════════════════════════════════\n");
         sb.append("  PLAYER INFORMATION\n");
         sb.append("═══════════════════════════════════════\n\n");
-        sb.append("  Number:     #").append(player.getOrDefault("number", "N/A")).append('\n');
-        sb.append("  Name:       ").append(player.getOrDefault("name", "N/A")).append('\n');
-        sb.append("  Position:   ").append(player.getOrDefault("position", "N/A")).append('\n');
-        sb.append("  Role:       ").append(player.getOrDefault("role", "N/A")).append('\n');
-        sb.append("  Type:       ").append(player.getOrDefault("type", "N/A")).append('\n');
+        sb.append("  Number:     #").append(fields[3]).append('\n');
+        sb.append("  Name:       ").append(fields[0]).append('\n');
+        sb.append("  Position:   ").append(fields[2]).append('\n');
+        sb.append("  Role:       ").append(fields[1]).append('\n');
+        sb.append("  Type:       ").append(fields[4]).append('\n');
         sb.append("\n═══════════════════════════════════════\n");
         return sb.toString();
     }
@@ -347,82 +445,33 @@ mainRoleDropdown = new JComboBox<>(roles);
         return img;
     }
     private void updateMainFilter() {
-        if (mainSearch == null || playerListModel == null) return;
-        String q = mainSearch.getText().trim().toLowerCase(Locale.ROOT);
-        String selectedRole = (String) mainRoleDropdown.getSelectedItem();
-        String selectedType = (String) mainTypeDropdown.getSelectedItem();
-        String sortBy = (String) mainSortDropdown.getSelectedItem();
-        java.util.List<Map<String, String>> filtered = new ArrayList<>();
-        for (Map<String, String> p : players) {
-            String name = p.getOrDefault("name", "").toLowerCase(Locale.ROOT);
-            String position = p.getOrDefault("position", "").toLowerCase(Locale.ROOT);
-            String number = p.getOrDefault("number", "");
-            String role = p.getOrDefault("role", "");
-            String type = p.getOrDefault("type", "");
-            boolean matchesSearch = q.isEmpty() || name.contains(q) ||
-                    number.equals(q) || position.contains(q);
-            boolean matchesRole = "All Roles".equals(selectedRole) ||
-                    role.equals(selectedRole);
-            boolean matchesType = "All Types".equals(selectedType) ||
-                    type.equals(selectedType);
-            if (matchesSearch && matchesRole && matchesType) {
-                filtered.add(p);
-            }
-        }
-        switch (sortBy) {
-            case "Jersey Number" -> filtered.sort((a, b) -> {
-                String numStrA = a.getOrDefault("number", "");
-                String numStrB = b.getOrDefault("number", "");
-                boolean isNAA = numStrA.isEmpty() || numStrA.equals("N/A") || numStrA.equals("N/a");
-                boolean isNAB = numStrB.isEmpty() || numStrB.equals("N/A") || numStrB.equals("N/a");
-                if (isNAA && isNAB) return 0;
-                if (isNAA) return 1;
-                if (isNAB) return -1;
-                try {
-                    int numA = Integer.parseInt(numStrA);
-                    int numB = Integer.parseInt(numStrB);
-                    return Integer.compare(numA, numB);
-                } catch (NumberFormatException e) {
-                    return 0;
-                }
-            });
-            case "Position" -> filtered.sort((a, b) ->
-                    a.getOrDefault("position", "").compareTo(b.getOrDefault("position", ""))
-            );
-            default -> filtered.sort((a, b) ->
-                    a.getOrDefault("name", "").compareTo(b.getOrDefault("name", ""))
-            );
-        }
-        playerListModel.clear();
-        for (Map<String, String> p : filtered) {
-            playerListModel.addElement(p);
-        }
+        if (mainView != null) mainView.refresh();
+        if (statsArea != null) refreshStats();
     }
-    @SuppressWarnings("unchecked")
-    private ListCellRenderer<Map<String, String>> createPlayerListCellRenderer() {
-        return (ListCellRenderer<Map<String, String>>) (ListCellRenderer<?>) new DefaultListCellRenderer() {
-            @Override
-            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
-                                                          boolean isSelected, boolean cellHasFocus) {
-                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                if (value instanceof Map) {
-                    Map<String, String> player = (Map<String, String>) value;
-                    String number = player.getOrDefault("number", "");
-                    String name = player.getOrDefault("name", "");
-                    String position = player.getOrDefault("position", "");
-                    setText("#" + number + " - " + name + " (" + position + ")");
-                    setBorder(new EmptyBorder(8, 10, 8, 10));
-                    if (isSelected) {
-                        setBackground(LIGHT_GREEN);
-                        setForeground(WHITE);
-                        setFont(getFont().deriveFont(Font.BOLD));
-                    } else {
-                        setBackground(DARK_GREEN);
-                        setForeground(WHITE);
-                    }
-                }
-                return this;
-            }
+    int[] runQuery(String text, String selectedRole, String selectedType, String sortBy) {
+        return queries.rows(viewQuery(text, selectedRole, selectedType, sortBy));
+    }
+    private static RosterQueryEngine.Query viewQuery(String text, String selectedRole, String selectedType, String sortBy) {
+        return new RosterQueryEngine.Query(text, roleFilter(selectedRole), typeFilter(selectedType), sortKey(sortBy));
+    }
+    private static String roleFilter(String selectedRole) {
+        return "All Roles".equals(selectedRole) ? null : selectedRole;
+    }
+    private static String typeFilter(String selectedType) {
+        return "All Types".equals(selectedType) ? null : selectedType;
+    }
+    private static String sortLabel(RosterStore.SortKey key) {
+        return switch (key) {
+            case NUMBER -> "Jersey Number";
+            case POSITION -> "Position";
+            case NAME -> "Alphabetical";
+        };
+    }
+    private static RosterStore.SortKey sortKey(String sortBy) {
+        return switch (sortBy) {
+            case "Jersey Number" -> RosterStore.SortKey.NUMBER;
+            case "Position" -> RosterStore.SortKey.POSITION;
+            default -> RosterStore.SortKey.NAME;
         };
     }
     private void openEditRosterDialog(JFrame parent) {
@@ -454,6 +503,11 @@ mainRoleDropdown = new JComboBox<>(roles);
         String[] sortOptions = {"Alphabetical", "Jersey Number", "Position"};
         JComboBox<String> sortDrop = new JComboBox<>(sortOptions);
         styleCombo(sortDrop);
+        // Open on the main window's query, which is already cached.
+        searchField.setText(mainSearch.getText());
+        roleDrop.setSelectedItem(mainRoleDropdown.getSelectedItem());
+        typeDrop.setSelectedItem(mainTypeDropdown.getSelectedItem());
+        sortDrop.setSelectedItem(mainSortDropdown.getSelectedItem());
         filters.add(new JLabel("Role:"));
         filters.add(roleDrop);
         filters.add(new JLabel("Type:"));
@@ -462,87 +516,65 @@ mainRoleDropdown = new JComboBox<>(roles);
         filters.add(sortDrop);
         topPanel.add(filters, BorderLayout.CENTER);
         container.add(topPanel, BorderLayout.NORTH);
-        DefaultListModel<Map<String, String>> editModel = new DefaultListModel<>();
-        for (Map<String, String> p : players) {
-            editModel.addElement(p);
-        }
-        JList<Map<String, String>> editList = new JList<>(editModel);
-        editList.setCellRenderer(createPlayerListCellRenderer());
-        editList.setBackground(DARK_GREEN);
-        editList.setForeground(WHITE);
-        editList.setSelectionBackground(LIGHT_GREEN);
-        editList.setSelectionForeground(WHITE);
-        editList.setFont(new Font("Arial", Font.PLAIN, 13));
-        JScrollPane listScroll = new JScrollPane(editList);
+        RowListModel editModel = new RowListModel();
+        RosterTableModel tableModel = new RosterTableModel(roster, editModel);
+        JTable editTable = new JTable(tableModel);
+        editTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        editTable.setBackground(DARK_GREEN);
+        editTable.setForeground(WHITE);
+        editTable.setSelectionBackground(LIGHT_GREEN);
+        editTable.setSelectionForeground(WHITE);
+        editTable.setGridColor(MIDNIGHT_GREEN);
+        editTable.setFont(new Font("Arial", Font.PLAIN, 13));
+        editTable.setRowHeight(24);
+        editTable.setFillsViewportHeight(true);
+        editTable.getTableHeader().setReorderingAllowed(false);
+        editTable.getColumnModel().getColumn(RosterTableModel.NAME).setPreferredWidth(260);
+        editTable.getColumnModel().getColumn(RosterTableModel.NUMBER).setPreferredWidth(50);
+        editTable.getColumnModel().getColumn(RosterTableModel.POSITION).setPreferredWidth(220);
+        JScrollPane listScroll = new JScrollPane(editTable);
         listScroll.setBorder(new LineBorder(MIDNIGHT_GREEN, 2));
         listScroll.getViewport().setBackground(DARK_GREEN);
         container.add(listScroll, BorderLayout.CENTER);
-        Runnable applyFilter = () -> {
-            String q = searchField.getText().trim().toLowerCase(Locale.ROOT);
-            String selRole = (String) roleDrop.getSelectedItem();
-            String selType = (String) typeDrop.getSelectedItem();
-            String sortBy2 = (String) sortDrop.getSelectedItem();
-            java.util.List<Map<String, String>> filtered = new ArrayList<>();
-            for (Map<String, String> p : players) {
-                String name = p.getOrDefault("name", "").toLowerCase(Locale.ROOT);
-                String position = p.getOrDefault("position", "").toLowerCase(Locale.ROOT);
-                String number = p.getOrDefault("number", "");
-                String role = p.getOrDefault("role", "");
-                String type = p.getOrDefault("type", "");
-                boolean matchesSearch = q.isEmpty() || name.contains(q) ||
-                        number.equals(q) || position.contains(q);
-                boolean matchesRole = "All Roles".equals(selRole) || role.equals(selRole);
-                boolean matchesType = "All Types".equals(selType) || type.equals(selType);
-                if (matchesSearch && matchesRole && matchesType) {
-                    filtered.add(p);
-                }
-            }
-            switch (sortBy2) {
-                case "Jersey Number" -> filtered.sort((a, b) -> {
-                    String aNum = a.getOrDefault("number", "");
-                    String bNum = b.getOrDefault("number", "");
-                    boolean na = aNum.isEmpty() || aNum.equals("N/A");
-                    boolean nb = bNum.isEmpty() || bNum.equals("N/A");
-                    if (na && nb) return 0;
-                    if (na) return 1;
-                    if (nb) return -1;
-                    try {
-                        return Integer.compare(Integer.parseInt(aNum), Integer.parseInt(bNum));
-                    } catch (NumberFormatException ex) { return 0; }
-                });
-                case "Position" -> filtered.sort((a, b) ->
-                        a.getOrDefault("position", "").compareTo(b.getOrDefault("position", ""))
-                );
-                default -> filtered.sort((a, b) ->
-                        a.getOrDefault("name", "").compareTo(b.getOrDefault("name", ""))
-                );
-            }
-            editModel.clear();
-            for (Map<String, String> p : filtered) {
-                editModel.addElement(p);
-            }
-        };
+        RosterView editView = new RosterView(queries, editTable.getSelectionModel(), editModel, FILTER_DEBOUNCE_MILLIS, () -> viewQuery(
+                searchField.getText(),
+                (String) roleDrop.getSelectedItem(),
+                (String) typeDrop.getSelectedItem(),
+                (String) sortDrop.getSelectedItem()));
+        showFacetCounts(editView, roleDrop, typeDrop);
+        showQueryFailures(editView, dialog);
+        editView.refresh();
+        repository.addListener(editView);
         searchField.getDocument().addDocumentListener(new DocumentListener() {
-            public void insertUpdate(DocumentEvent e) { applyFilter.run(); }
-            public void removeUpdate(DocumentEvent e) { applyFilter.run(); }
-            public void changedUpdate(DocumentEvent e) { applyFilter.run(); }
+            public void insertUpdate(DocumentEvent e) { editView.request(); }
+            public void removeUpdate(DocumentEvent e) { editView.request(); }
+            public void changedUpdate(DocumentEvent e) { editView.request(); }
         });
-        roleDrop.addActionListener(e -> applyFilter.run());
-        typeDrop.addActionListener(e -> applyFilter.run());
-        sortDrop.addActionListener(e -> applyFilter.run());
-        editList.addMouseListener(new java.awt.event.MouseAdapter() {
+        roleDrop.addActionListener(e -> editView.refresh());
+        typeDrop.addActionListener(e -> editView.refresh());
+        sortDrop.addActionListener(e -> editView.refresh());
+        // Header clicks sort the same way the dropdown does.
+        editTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int column = editTable.columnAtPoint(e.getPoint());
+                RosterStore.SortKey key = column < 0 ? null : RosterTableModel.sortKey(editTable.convertColumnIndexToModel(column));
+                if (key != null) sortDrop.setSelectedItem(sortLabel(key));
+            }
+        });
+        editTable.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
             public void mouseClicked(java.awt.event.MouseEvent e) {
                 if (e.getClickCount() == 2) {
-                    Map<String, String> sel = editList.getSelectedValue();
-                    if (sel != null) {
-                        openEditPersonDialog(dialog, sel, applyFilter);
+                    int index = editTable.getSelectedRow();
+                    if (index >= 0 && roster.isLive(tableModel.getRowAt(index))) {
+                        openEditPersonDialog(dialog, tableModel.getRowAt(index));
                     }
                 }
             }
         });
         JButton addInDialog = new JButton("Add Person");
-        addInDialog.addActionListener(e -> openAddPersonDialog(dialog, applyFilter));
+        addInDialog.addActionListener(e -> openAddPersonDialog(dialog));
         JButton close = new JButton("Close");
         close.addActionListener(e -> dialog.dispose());
         JPanel btnHolder = new JPanel(new FlowLayout(FlowLayout.RIGHT));
@@ -552,14 +584,32 @@ mainRoleDropdown = new JComboBox<>(roles);
         container.add(btnHolder, BorderLayout.SOUTH);
         dialog.setContentPane(container);
         dialog.setVisible(true);
-        updateMainFilter();
+        repository.removeListener(editView);
+        editView.dispose();
+        editModel.removeListDataListener(tableModel);
+    }
+    private static void showFacetCounts(RosterView view, JComboBox<String> roleDrop, JComboBox<String> typeDrop) {
+        FacetCountRenderer roleCounts = new FacetCountRenderer("All Roles");
+        FacetCountRenderer typeCounts = new FacetCountRenderer("All Types");
+        roleCounts.install(roleDrop);
+        typeCounts.install(typeDrop);
+        view.onFacetCounts(counts -> {
+            roleCounts.setCounts(counts.roles());
+            typeCounts.setCounts(counts.types());
+            roleDrop.repaint();
+            typeDrop.repaint();
+        });
+    }
+    private static void showQueryFailures(RosterView view, Component parent) {
+        view.onQueryFailed(error -> JOptionPane.showMessageDialog(parent,
+                "Failed to filter the roster: " + error, "Filter Error", JOptionPane.ERROR_MESSAGE));
     }
     private void styleCombo(JComboBox<?> combo) {
         combo.setBackground(DARK_GREEN);
         combo.setForeground(WHITE);
         combo.setFont(new Font("Arial", Font.PLAIN, 12));
     }
-    private void openAddPersonDialog(Component parent, Runnable refresh) {
+    private void openAddPersonDialog(Component parent) {
         JTextField nameField = new JTextField(15);
         JComboBox<String> roleField = new JComboBox<>(new String[]{"Player", "Coach", "Staff"});
         JTextField positionField = new JTextField(15);
@@ -598,48 +648,32 @@ mainRoleDropdown = new JComboBox<>(roles);
                 JOptionPane.showMessageDialog(parent, "Name, role and position are required.", "Missing Data", JOptionPane.WARNING_MESSAGE);
                 return;
             }
-            Map<String, String> newPlayer = new HashMap<>();
-            newPlayer.put("name", name);
-            newPlayer.put("role", role);
-            newPlayer.put("position", position);
-            newPlayer.put("number", number.isEmpty() ? "N/A" : number);
-            newPlayer.put("type", type == null ? "N/A" : type);
+            int parsedNumber = RosterStore.parseNumber(number);
+            if (parsedNumber == RosterStore.NO_NUMBER && !isNotApplicable(number)) {
+                JOptionPane.showMessageDialog(parent, "Number must be a whole number or left blank.", "Invalid Number", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
             try {
-                appendPersonToCSV(name, role, position, newPlayer.get("number"), newPlayer.get("type"));
-                players.add(newPlayer);
-                playerListModel.addElement(newPlayer);
-                if (refresh != null) {
-                    refresh.run();
-                } else {
-                    updateMainFilter();
-                }
+                String[] fields = {name, role, position, isNotApplicable(number) ? "N/A" : number, type == null ? "N/A" : type};
+                repository.add(fields);
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(parent, "Failed to write to team.csv: " + ex.getMessage(), "I/O Error", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
-    private void rewriteCSV() throws IOException {
-        try (FileWriter fw = new FileWriter("team.csv", false);
-            PrintWriter pw = new PrintWriter(fw)) {
-            pw.println("Name,Role,Position,Number,Offense/Defense");
-            for (Map<String, String> p : players) {
-                pw.printf("%s,%s,%s,%s,%s%n",
-                        escapeCSV(p.get("name")),
-                        escapeCSV(p.get("role")),
-                        escapeCSV(p.get("position")),
-                        escapeCSV(p.get("number")),
-                        escapeCSV(p.get("type")));
-            }
-        }
+    private static boolean isNotApplicable(String number) {
+        return number.isEmpty() || number.equalsIgnoreCase("N/A");
     }
-    private void openEditPersonDialog(Component parent, Map<String, String> person, Runnable refresh) {
-        JTextField nameField = new JTextField(person.get("name"), 15);
+    private void openEditPersonDialog(Component parent, int row) {
+        String[] current = roster.liveRow(row);
+        if (current == null) return;
+        JTextField nameField = new JTextField(current[0], 15);
         JComboBox<String> roleField = new JComboBox<>(new String[]{"Player", "Coach", "Staff"});
-        roleField.setSelectedItem(person.get("role"));
-        JTextField positionField = new JTextField(person.get("position"), 15);
-        JTextField numberField = new JTextField(person.get("number"), 5);
+        roleField.setSelectedItem(current[1]);
+        JTextField positionField = new JTextField(current[2], 15);
+        JTextField numberField = new JTextField(current[3], 5);
         JComboBox<String> typeField = new JComboBox<>(new String[]{"Offense", "Defense", "N/A"});
-        typeField.setSelectedItem(person.get("type"));
+        typeField.setSelectedItem(current[4]);
         JPanel form = new JPanel(new GridBagLayout());
         form.setBackground(MIDNIGHT_GREEN);
         GridBagConstraints gbc = new GridBagConstraints();
@@ -675,73 +709,61 @@ mainRoleDropdown = new JComboBox<>(roles);
                 JOptionPane.showMessageDialog(parent, "Name, role and position are required.", "Missing Data", JOptionPane.WARNING_MESSAGE);
                 return;
             }
-            person.put("name", newName);
-            person.put("role", newRole);
-            person.put("position", newPosition);
-            person.put("number", newNumber.isEmpty() ? "N/A" : newNumber);
-            person.put("type", newType == null ? "N/A" : newType);
+            int parsedNumber = RosterStore.parseNumber(newNumber);
+            // Numbers from the file are kept as written.
+            if (parsedNumber == RosterStore.NO_NUMBER && !isNotApplicable(newNumber) && !newNumber.equals(current[3])) {
+                JOptionPane.showMessageDialog(parent, "Number must be a whole number or left blank.", "Invalid Number", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            String[] fields = {newName, newRole, newPosition, isNotApplicable(newNumber) ? "N/A" : newNumber,
+                    newType == null ? "N/A" : newType};
             try {
-                rewriteCSV();
+                if (!repository.update(row, fields)) showRemovedMessage(parent, current[0]);
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(parent, "Failed to update team.csv: " + ex.getMessage(), "I/O Error", JOptionPane.ERROR_MESSAGE);
             }
-            refresh.run();
         } else if (res == 1) {
             int conf = JOptionPane.showConfirmDialog(parent,
-                    "Delete " + person.get("name") + " from roster?",
+                    "Delete " + current[0] + " from roster?",
                     "Confirm Delete", JOptionPane.YES_NO_OPTION);
             if (conf == JOptionPane.YES_OPTION) {
-                players.remove(person);
                 try {
-                    rewriteCSV();
+                    if (!repository.remove(row)) showRemovedMessage(parent, current[0]);
                 } catch (IOException ex) {
                     JOptionPane.showMessageDialog(parent, "Failed to update team.csv: " + ex.getMessage(), "I/O Error", JOptionPane.ERROR_MESSAGE);
                 }
-                refresh.run();
             }
         }
     }
-    private void appendPersonToCSV(String name, String role, String position, String number, String type) throws IOException {
-        try (FileWriter fw = new FileWriter("team.csv", true);
-             PrintWriter pw = new PrintWriter(fw)) {
-            pw.printf("%s,%s,%s,%s,%s%n",
-                    escapeCSV(name), escapeCSV(role), escapeCSV(position), escapeCSV(number), escapeCSV(type));
-        }
+    private static void showRemovedMessage(Component parent, String name) {
+        JOptionPane.showMessageDialog(parent, name + " is no longer on the roster.", "Roster Changed", JOptionPane.WARNING_MESSAGE);
     }
-    private String escapeCSV(String value) {
-        if (value == null || value.isEmpty()) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    public static void main(String[] args) {
+        EaglesRosterManager gui = new EaglesRosterManager();
+        StartupTimings timings = gui.timings;
+        timings.begin("main");
+        IOException csvError = null;
+        try {
+            ensureTeamCsvExists("team.csv");
+        } catch (IOException e) {
+            csvError = e;
         }
-        return value;
-    }
-    public class UserInfoCSVHandler {
-    public static void saveUserInfo(String name, String email, String favoriteTeam, String filename) throws IOException {
-        boolean fileExists = Files.exists(Paths.get(filename));
-        try (FileWriter fw = new FileWriter(filename, true);
-            PrintWriter writer = new PrintWriter(fw)) {
-            if (!fileExists) {
-                writer.println("Name,Email,Favorite Team,Login Date/Time");
+        IOException createError = csvError;
+        // Load the roster while the welcome form is open.
+        SwingUtilities.invokeLater(() -> {
+            if (createError != null) {
+                JOptionPane.showMessageDialog(null, "Error creating team.csv: " + createError.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            String line = String.format("%s,%s,%s,%s",
-                escapeCSV(name),
-                escapeCSV(email),
-                escapeCSV(favoriteTeam),
-                timestamp
-            );
-            writer.println(line);
-        }
-    }
-    private static String escapeCSV(String value) {
-        if (value == null || value.isEmpty()) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+            timings.begin("login");
+            showWelcome();
+            timings.end("login");
+            gui.buildGui();
+            timings.end("main");
+            gui.showGui();
+        });
+        gui.startLoading("team.csv");
     }
-}
-    public static void main(String[] args) {
+    private static void showWelcome() {
         while (true) {
             JTextField nameField = new JTextField(15);
             JTextField emailField = new JTextField(15);
@@ -813,20 +835,6 @@ mainRoleDropdown = new JComboBox<>(roles);
             }
             break;
         }
-        try {
-            ensureTeamCsvExists("team.csv");
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(null, "Error creating team.csv: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
-        SwingUtilities.invokeLater(() -> {
-            EaglesRosterManager gui = new EaglesRosterManager();
-            try {
-                gui.loadPlayersFromCSV("team.csv");
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(null, "Error loading players: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
-            gui.createAndShowGui();
-        });
     }
     private static void ensureTeamCsvExists(String filename) throws IOException {
         if (!Files.exists(Paths.get(filename))) {
@@ -943,21 +951,7 @@ mainRoleDropdown = new JComboBox<>(roles);
             }
         }
     }
-    private void loadPlayersFromCSV(String filename) throws IOException {
-        java.util.List<String> lines = Files.readAllLines(Paths.get(filename));
-        for (int i = 1; i < lines.size(); i++) {
-            String line = lines.get(i).trim();
-            if (line.isEmpty()) continue;
-            String[] parts = line.split(",");
-            if (parts.length >= 5) {
-                Map<String, String> player = new HashMap<>();
-                player.put("name", parts[0].trim());
-                player.put("role", parts[1].trim());
-                player.put("position", parts[2].trim());
-                player.put("number", parts[3].trim());
-                player.put("type", parts[4].trim());
-                players.add(player);
-            }
-        }
+    void loadPlayersFromCSV(String filename) throws IOException {
+        new RosterLoader(Paths.get(filename), roster).loadAll();
     }
 }
\ No newline at end of file
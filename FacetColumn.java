@@ -0,0 +1,151 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A low-cardinality roster column, such as role or position, held as int codes.
+ * Common values index their rows with a bitmap, rare ones with a RowList.
+ */
+class FacetColumn {
+    static final int NONE = -1;
+    /** A value held by more than 1 in this many rows gets a bitmap */
+    static final int DENSE_SHARE = 32;
+    /** Values with fewer rows than this always keep a row list */
+    static final int MIN_DENSE_ROWS = 64;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[8];
+    private long[][] bits = new long[8][];
+    private RowList[] lists = new RowList[8];
+    private int[] counts = new int[8];
+    private int valueCount;
+    private int[] cells;
+    private int rowLimit;
+
+    FacetColumn(int capacity) {
+        this.cells = new int[capacity];
+    }
+
+    /**
+     * The value's code, or NONE if no row has ever held it
+     */
+    int code(String value) {
+        Integer code = codes.get(value);
+        return code == null ? NONE : code;
+    }
+
+    int valueCount() {
+        return valueCount;
+    }
+
+    String value(int code) {
+        return values[code];
+    }
+
+    int codeAt(int row) {
+        return cells[row];
+    }
+
+    String valueAt(int row) {
+        return values[cells[row]];
+    }
+
+    /**
+     * Give the row a value and index it; null is stored as "N/A"
+     */
+    void set(int row, String value) {
+        int code = codeFor(value == null ? "N/A" : value);
+        cells[row] = code;
+        if (row >= rowLimit) rowLimit = row + 1;
+        counts[code]++;
+        long[] b = bits[code];
+        if (b == null) {
+            lists[code].insert(row);
+            if (counts[code] >= MIN_DENSE_ROWS && (long) counts[code] * DENSE_SHARE > rowLimit) toBitmap(code);
+            return;
+        }
+        if ((row >>> 6) >= b.length) {
+            b = Arrays.copyOf(b, Math.max((row >>> 6) + 1, b.length * 2));
+            bits[code] = b;
+        }
+        b[row >>> 6] |= 1L << row;
+        if (isSparse(code)) toList(code);
+    }
+
+    void unindex(int row) {
+        int code = cells[row];
+        counts[code]--;
+        if (bits[code] == null) {
+            lists[code].delete(row);
+            return;
+        }
+        bits[code][row >>> 6] &= ~(1L << row);
+        if (isSparse(code)) toList(code);
+    }
+
+    boolean isDense(int code) {
+        return bits[code] != null;
+    }
+
+    /**
+     * Bitmap of rows holding a dense code; missing words are zero
+     */
+    long[] bitsOf(int code) {
+        return bits[code];
+    }
+
+    RowList rowsOf(int code) {
+        return lists[code];
+    }
+
+    int count(int code) {
+        return counts[code];
+    }
+
+    void grow(int capacity) {
+        cells = Arrays.copyOf(cells, capacity);
+    }
+
+    private boolean isSparse(int code) {
+        return counts[code] < MIN_DENSE_ROWS || (long) counts[code] * DENSE_SHARE * 2 < rowLimit;
+    }
+
+    private void toBitmap(int code) {
+        RowList rows = lists[code];
+        long[] b = new long[(rows.get(rows.size() - 1) >>> 6) + 1];
+        for (int i = 0; i < rows.size(); i++) {
+            int row = rows.get(i);
+            b[row >>> 6] |= 1L << row;
+        }
+        bits[code] = b;
+        lists[code] = null;
+    }
+
+    private void toList(int code) {
+        long[] b = bits[code];
+        int[] rows = new int[counts[code]];
+        int n = 0;
+        for (int i = 0; i < b.length; i++) {
+            for (long word = b[i]; word != 0; word &= word - 1) {
+                rows[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        lists[code] = RowList.of(rows);
+        bits[code] = null;
+    }
+
+    private int codeFor(String value) {
+        Integer code = codes.get(value);
+        if (code != null) return code;
+        if (valueCount == values.length) {
+            values = Arrays.copyOf(values, valueCount * 2);
+            bits = Arrays.copyOf(bits, valueCount * 2);
+            lists = Arrays.copyOf(lists, valueCount * 2);
+            counts = Arrays.copyOf(counts, valueCount * 2);
+        }
+        values[valueCount] = value;
+        lists[valueCount] = new RowList();
+        codes.put(value, valueCount);
+        return valueCount++;
+    }
+}
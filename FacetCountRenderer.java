@@ -0,0 +1,48 @@
+import java.awt.Component;
+import java.util.Map;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JComboBox;
+import javax.swing.JList;
+
+/**
+ * Filter dropdown renderer that shows each choice's match count, such as "Defense (34)"
+ */
+public class FacetCountRenderer extends DefaultListCellRenderer {
+    private static final long serialVersionUID = 1L;
+    private final String allLabel;
+    private Map<String, Integer> counts = Map.of();
+    private int total;
+
+    public FacetCountRenderer(String allLabel) {
+        this.allLabel = allLabel;
+    }
+
+    public void install(JComboBox<String> combo) {
+        combo.setRenderer(this);
+    }
+
+    /**
+     * Replace the counts; callers repaint the combo box
+     */
+    public void setCounts(Map<String, Integer> counts) {
+        this.counts = counts;
+        int sum = 0;
+        for (int c : counts.values()) {
+            sum += c;
+        }
+        total = sum;
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected,
+                                                  boolean cellHasFocus) {
+        super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+        if (value instanceof String choice) {
+            if (!counts.isEmpty()) {
+                int count = allLabel.equals(choice) ? total : counts.getOrDefault(choice, 0);
+                setText(choice + " (" + count + ")");
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Debounced, off-EDT filtering for a Swing view. Only the latest query's
+ * result or failure is published on the EDT; superseded ones are interrupted.
+ *
+ * @param <R> the query result type
+ */
+public class FilterPipeline<R> {
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)), r -> {
+                Thread t = new Thread(r, "roster-filter");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final Supplier<Callable<R>> capture;
+    private final Consumer<R> publish;
+    private final Consumer<Throwable> fail;
+    private final Timer timer;
+    private long generation;
+    private Future<?> running;
+
+    /**
+     * @param capture called on the EDT to snapshot the inputs into a query
+     * @param fail called on the EDT instead of publish if the latest query failed
+     */
+    public FilterPipeline(int debounceMillis, Supplier<Callable<R>> capture, Consumer<R> publish,
+                          Consumer<Throwable> fail) {
+        this.capture = capture;
+        this.publish = publish;
+        this.fail = fail;
+        this.timer = new Timer(debounceMillis, e -> runNow());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * Query after the debounce period, replacing any pending one
+     */
+    public void request() {
+        timer.restart();
+    }
+
+    /**
+     * Query now, skipping the debounce period
+     */
+    public void runNow() {
+        timer.stop();
+        Callable<R> query = capture.get();
+        long gen = ++generation;
+        if (running != null) running.cancel(true);
+        running = WORKERS.submit(() -> {
+            R result;
+            try {
+                result = query.call();
+            } catch (CancellationException | InterruptedException e) {
+                return;
+            } catch (Exception | Error e) {
+                SwingUtilities.invokeLater(() -> {
+                    if (gen == generation) fail.accept(e);
+                });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (gen == generation) publish.accept(result);
+            });
+        });
+    }
+
+    /**
+     * Stop the timer and drop any query in flight
+     */
+    public void dispose() {
+        timer.stop();
+        generation++;
+        if (running != null) running.cancel(true);
+    }
+}
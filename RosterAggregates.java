@@ -0,0 +1,117 @@
+import java.util.*;
+
+/**
+ * Roster totals for the statistics panel, adjusted as rows are indexed and
+ * unindexed so they never need a rescan. Guarded by the owning store's lock.
+ */
+class RosterAggregates {
+    /** Positions listed in the panel; the rest share one line */
+    static final int TOP_POSITIONS = 10;
+
+    private final Map<String, int[]> byRole = new HashMap<>();
+    private final Map<String, int[]> byType = new HashMap<>();
+    private final Map<String, int[]> byPosition = new HashMap<>();
+    private int total;
+    private int sharedNumbers;
+    private int peopleSharingNumbers;
+    private volatile long version;
+
+    /**
+     * Count a row; numberHolders includes it, or is 0 if it has no number
+     */
+    void add(String role, String type, String position, int numberHolders) {
+        total++;
+        bump(byRole, role, 1);
+        bump(byType, type, 1);
+        bump(byPosition, position, 1);
+        if (numberHolders == 2) {
+            sharedNumbers++;
+            peopleSharingNumbers += 2;
+        } else if (numberHolders > 2) {
+            peopleSharingNumbers++;
+        }
+        version++;
+    }
+
+    /**
+     * Uncount a row; numberHolders includes it, or is 0 if it has no number
+     */
+    void remove(String role, String type, String position, int numberHolders) {
+        total--;
+        bump(byRole, role, -1);
+        bump(byType, type, -1);
+        bump(byPosition, position, -1);
+        if (numberHolders == 2) {
+            sharedNumbers--;
+            peopleSharingNumbers -= 2;
+        } else if (numberHolders > 2) {
+            peopleSharingNumbers--;
+        }
+        version++;
+    }
+
+    long version() {
+        return version;
+    }
+
+    private static int count(Map<String, int[]> counts, String key) {
+        int[] c = counts.get(key);
+        return c == null ? 0 : c[0];
+    }
+
+    void describe(StringBuilder sb) {
+        sb.append("  • Roster Size: ").append(total).append('\n');
+        sb.append("  • By Role: ");
+        appendCounts(sb, byRole);
+        sb.append("  • Offense/Defense: ").append(count(byType, "Offense")).append(" / ")
+                .append(count(byType, "Defense")).append('\n');
+        sb.append("  • Shared Numbers: ").append(sharedNumbers).append(" worn by ")
+                .append(peopleSharingNumbers).append(" people\n");
+        sb.append("  • By Position:\n");
+        appendTopCounts(sb, byPosition, TOP_POSITIONS);
+    }
+
+    private static void appendCounts(StringBuilder sb, Map<String, int[]> counts) {
+        String[] keys = counts.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(keys[i]).append(' ').append(counts.get(keys[i])[0]);
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * One line per key for the most common keys, then how many were left out
+     */
+    private static void appendTopCounts(StringBuilder sb, Map<String, int[]> counts, int limit) {
+        Comparator<Map.Entry<String, int[]>> order = Comparator
+                .comparingInt((Map.Entry<String, int[]> e) -> e.getValue()[0])
+                .reversed()
+                .thenComparing(Map.Entry::getKey);
+        // Keep only the top entries rather than sorting every position.
+        PriorityQueue<Map.Entry<String, int[]>> top = new PriorityQueue<>(order.reversed());
+        for (Map.Entry<String, int[]> e : counts.entrySet()) {
+            top.add(e);
+            if (top.size() > limit) top.poll();
+        }
+        List<Map.Entry<String, int[]>> shown = new ArrayList<>(top);
+        shown.sort(order);
+        for (Map.Entry<String, int[]> e : shown) {
+            sb.append("      ").append(e.getKey()).append(' ').append(e.getValue()[0]).append('\n');
+        }
+        if (counts.size() > shown.size()) {
+            sb.append("      and ").append(counts.size() - shown.size()).append(" more\n");
+        }
+    }
+
+    private static void bump(Map<String, int[]> counts, String key, int delta) {
+        int[] c = counts.get(key);
+        if (c == null) {
+            c = new int[1];
+            counts.put(key, c);
+        }
+        c[0] += delta;
+        if (c[0] == 0) counts.remove(key);
+    }
+}
@@ -0,0 +1,139 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/**
+ * Streaming RFC 4180 reader for roster CSV files
+ */
+public class RosterCSVReader {
+
+    /**
+     * Receives one record at a time; the fields array is reused between calls
+     */
+    public interface RecordHandler {
+        void onRecord(String[] fields, int count, long recordIndex) throws IOException;
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private char[] field = new char[128];
+    private int fieldLen;
+    private String[] fields = new String[8];
+    private int count;
+
+    public RosterCSVReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Read every record of a UTF-8 file
+     */
+    public static void read(Path path, RecordHandler handler) throws IOException {
+        try (Reader r = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            new RosterCSVReader(r).read(handler);
+        }
+    }
+
+    /**
+     * Read all records, skipping blank lines
+     */
+    public void read(RecordHandler handler) throws IOException {
+        long recordIndex = 0;
+        boolean first = true;
+        int c;
+        while ((c = next()) != -1) {
+            if (first) {
+                first = false;
+                if (c == '\uFEFF') continue;
+            }
+            if (c == '\n') continue;
+            if (c == '\r') {
+                skipLineFeed();
+                continue;
+            }
+            count = 0;
+            c = parseRecord(c);
+            handler.onRecord(fields, count, recordIndex++);
+            if (c == -1) break;
+        }
+    }
+
+    /**
+     * Parse one record; returns the line terminator that ended it, or -1
+     */
+    private int parseRecord(int c) throws IOException {
+        while (true) {
+            fieldLen = 0;
+            if (c == '"') {
+                c = parseQuoted();
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    append((char) c);
+                    c = next();
+                }
+            }
+            addField();
+            if (c == ',') {
+                c = next();
+                continue;
+            }
+            if (c == '\r') skipLineFeed();
+            return c;
+        }
+    }
+
+    private int parseQuoted() throws IOException {
+        int c;
+        while (true) {
+            c = next();
+            if (c == -1) return -1;
+            if (c == '"') {
+                c = next();
+                if (c != '"') break;
+            }
+            append((char) c);
+        }
+        while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+            append((char) c);
+            c = next();
+        }
+        return c;
+    }
+
+    private void addField() {
+        if (count == fields.length) {
+            fields = Arrays.copyOf(fields, count * 2);
+        }
+        fields[count++] = fieldLen == 0 ? "" : new String(field, 0, fieldLen);
+    }
+
+    private void append(char ch) {
+        if (fieldLen == field.length) {
+            field = Arrays.copyOf(field, fieldLen * 2);
+        }
+        field[fieldLen++] = ch;
+    }
+
+    private void skipLineFeed() throws IOException {
+        if (pos == limit && !fill()) return;
+        if (buf[pos] == '\n') pos++;
+    }
+
+    private int next() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
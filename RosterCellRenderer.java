@@ -0,0 +1,86 @@
+import java.awt.*;
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.border.EmptyBorder;
+
+/**
+ * Cell renderer for lists of roster row ids; labels come precomputed from the store
+ */
+public class RosterCellRenderer extends JLabel implements ListCellRenderer<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    public static final int PROTOTYPE_ROW = -1;
+    private static final String PROTOTYPE_LABEL = "#00 - Xxxxxxxxxxxxxxxxxxxxxxxx (Xxxxxxxxxxxxxxxxxxxxxxxxxxxxxx)";
+    private static final Border CELL_BORDER = new EmptyBorder(8, 10, 8, 10);
+
+    private final RosterStore roster;
+    private final Color background;
+    private final Color selectedBackground;
+    private final Color foreground;
+    private Font plainFont;
+    private Font boldFont;
+
+    public RosterCellRenderer(RosterStore roster, Color background, Color selectedBackground, Color foreground) {
+        this.roster = roster;
+        this.background = background;
+        this.selectedBackground = selectedBackground;
+        this.foreground = foreground;
+        setOpaque(true);
+        setBorder(CELL_BORDER);
+        setForeground(foreground);
+    }
+
+    /**
+     * Set this renderer and a prototype value that fixes the cell size
+     */
+    public void install(JList<Integer> list) {
+        list.setCellRenderer(this);
+        list.setPrototypeCellValue(PROTOTYPE_ROW);
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends Integer> list, Integer value, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        Font listFont = list.getFont();
+        if (listFont != plainFont) {
+            plainFont = listFont;
+            boldFont = listFont.deriveFont(Font.BOLD);
+        }
+        int row = value;
+        String text = row == PROTOTYPE_ROW ? PROTOTYPE_LABEL : roster.liveLabel(row);
+        setText(text == null ? "" : text);
+        setBackground(isSelected ? selectedBackground : background);
+        setFont(isSelected ? boldFont : plainFont);
+        setEnabled(list.isEnabled());
+        return this;
+    }
+
+    // Same no-op overrides as DefaultListCellRenderer
+    @Override
+    public void invalidate() {}
+
+    @Override
+    public void validate() {}
+
+    @Override
+    public void revalidate() {}
+
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {}
+
+    @Override
+    public void repaint(Rectangle r) {}
+
+    @Override
+    public void repaint() {}
+
+    @Override
+    protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+        if ("text".equals(propertyName)) {
+            super.firePropertyChange(propertyName, oldValue, newValue);
+        }
+    }
+
+    @Override
+    public void firePropertyChange(String propertyName, boolean oldValue, boolean newValue) {}
+}
@@ -0,0 +1,13 @@
+/**
+ * One change made through the {@link RosterRepository}, with the row's fields before and after
+ */
+public record RosterChange(Kind kind, int row, String[] oldFields, String[] newFields, long version) {
+
+    public enum Kind {
+        ADDED,
+        UPDATED,
+        REMOVED,
+        /** Many rows changed at once; refilter everything */
+        RESET
+    }
+}
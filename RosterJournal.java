@@ -0,0 +1,278 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only change journal for team.csv, compacted into the file in the
+ * background. A #base marker per segment tells replay where to start after a crash.
+ */
+public class RosterJournal implements Closeable {
+
+    /**
+     * Receives replayed changes; rows are name, role, position, number, type
+     */
+    public interface Applier {
+        void add(String[] row);
+        void update(String[] oldRow, String[] newRow);
+        void delete(String[] row);
+    }
+
+    public static final String HEADER = "Name,Role,Position,Number,Offense/Defense";
+    private static final int FIELDS = 5;
+    private static final int DEFAULT_COMPACT_THRESHOLD = 500;
+
+    private final Path base;
+    private final String segmentPrefix;
+    private final int compactThreshold;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "roster-journal-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private long segment;
+    private CSVAppender out;
+    private int pendingRecords;
+    private boolean compacting;
+
+    public RosterJournal(Path base) throws IOException {
+        this(base, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public RosterJournal(Path base, int compactThreshold) throws IOException {
+        this.base = base.toAbsolutePath();
+        this.segmentPrefix = this.base.getFileName() + ".journal.";
+        this.compactThreshold = compactThreshold;
+        List<Long> existing = listSegments();
+        this.segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        this.pendingRecords = existing.isEmpty() ? 0 : compactThreshold;
+    }
+
+    /**
+     * Replay journaled changes onto the roster loaded from the base file
+     */
+    public synchronized void replay(Applier applier) throws IOException {
+        List<Long> segments = listSegments();
+        if (segments.isEmpty()) return;
+        long baseCrc = Files.exists(base) ? crcOf(base) : -1;
+        int from = 0;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            if (baseCrc >= 0 && baseCrc == readMarker(segmentPath(segments.get(i)))) {
+                from = i;
+                break;
+            }
+        }
+        for (int i = 0; i < from; i++) {
+            Files.deleteIfExists(segmentPath(segments.get(i)));
+        }
+        for (int i = from; i < segments.size(); i++) {
+            RosterCSVReader.read(segmentPath(segments.get(i)), (fields, count, recordIndex) -> apply(applier, fields, count));
+        }
+    }
+
+    public synchronized void recordAdd(String[] row) throws IOException {
+        append("A", row, null);
+    }
+
+    public synchronized void recordUpdate(String[] oldRow, String[] newRow) throws IOException {
+        append("U", oldRow, newRow);
+    }
+
+    public synchronized void recordDelete(String[] row) throws IOException {
+        append("D", row, null);
+    }
+
+    public synchronized boolean needsCompaction() {
+        return !compacting && pendingRecords >= compactThreshold;
+    }
+
+    /**
+     * Compact in the background; the returned future fails if the compaction does, and is null if one is running
+     */
+    public synchronized Future<?> compact(List<String[]> snapshot) throws IOException {
+        if (compacting) return null;
+        List<Long> folded = listSegments();
+        closeSegment();
+        segment++;
+        pendingRecords = 0;
+        compacting = true;
+        long markerSegment = segment;
+        return compactor.submit(() -> {
+            try {
+                writeCompacted(snapshot, folded, markerSegment);
+                return null;
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Compact and wait for the new roster file to be swapped in
+     */
+    public void compactNow(List<String[]> snapshot) throws IOException {
+        Future<?> done = compact(snapshot);
+        if (done == null) return;
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for compaction");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+        compactor.shutdown();
+    }
+
+    private void writeCompacted(List<String[]> snapshot, List<Long> folded, long markerSegment) throws IOException {
+        Path tmp = base.resolveSibling(base.getFileName() + ".compact");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+             Writer w = new BufferedWriter(new OutputStreamWriter(
+                     new CheckedOutputStream(fos, crc), StandardCharsets.UTF_8))) {
+            w.write(HEADER);
+            w.write('\n');
+            for (String[] row : snapshot) {
+                writeRow(w, row);
+                w.write('\n');
+            }
+            w.flush();
+            fos.getFD().sync();
+        }
+        String marker = "#base," + crc.getValue();
+        synchronized (this) {
+            if (markerSegment == segment && out != null) {
+                out.appendAndWait(marker);
+                out.sync();
+            } else {
+                try (CSVAppender appender = new CSVAppender(segmentPath(markerSegment), null, 256, 0, true)) {
+                    appender.appendAndWait(marker);
+                }
+            }
+        }
+        try {
+            Files.move(tmp, base, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, base, StandardCopyOption.REPLACE_EXISTING);
+        }
+        for (long n : folded) {
+            Files.deleteIfExists(segmentPath(n));
+        }
+    }
+
+    private void append(String op, String[] row, String[] newRow) throws IOException {
+        StringWriter sw = new StringWriter(96);
+        sw.write(op);
+        sw.write(',');
+        writeRow(sw, row);
+        if (newRow != null) {
+            sw.write(',');
+            writeRow(sw, newRow);
+        }
+        if (out == null) {
+            out = new CSVAppender(segmentPath(segment), null, 4096, 0, false);
+        }
+        out.appendAndWait(sw.toString());
+        pendingRecords++;
+    }
+
+    private static void apply(Applier applier, String[] fields, int count) {
+        if (count == 0) return;
+        switch (fields[0]) {
+            case "A" -> {
+                if (count == 1 + FIELDS) applier.add(slice(fields, 1));
+            }
+            case "U" -> {
+                if (count == 1 + 2 * FIELDS) applier.update(slice(fields, 1), slice(fields, 1 + FIELDS));
+            }
+            case "D" -> {
+                if (count == 1 + FIELDS) applier.delete(slice(fields, 1));
+            }
+            default -> { }
+        }
+    }
+
+    private static String[] slice(String[] fields, int from) {
+        return Arrays.copyOfRange(fields, from, from + FIELDS);
+    }
+
+    private static void writeRow(Writer w, String[] row) throws IOException {
+        for (int i = 0; i < FIELDS; i++) {
+            if (i > 0) w.write(',');
+            w.write(escapeCSV(row[i]));
+        }
+    }
+
+    private static String escapeCSV(String value) {
+        if (value == null || value.isEmpty()) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private long readMarker(Path segmentFile) throws IOException {
+        long[] marker = {-1};
+        RosterCSVReader.read(segmentFile, (fields, count, recordIndex) -> {
+            if (count == 2 && "#base".equals(fields[0])) {
+                try {
+                    marker[0] = Long.parseLong(fields[1]);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        });
+        return marker[0];
+    }
+
+    private static long crcOf(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                crc.update(buf, 0, n);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private void closeSegment() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private Path segmentPath(long n) {
+        return base.resolveSibling(segmentPrefix + n);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        Path dir = base.getParent();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, segmentPrefix + "*")) {
+            for (Path p : stream) {
+                String suffix = p.getFileName().toString().substring(segmentPrefix.length());
+                try {
+                    segments.add(Long.parseLong(suffix));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+}
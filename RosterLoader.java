@@ -0,0 +1,197 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+
+/**
+ * Loads a roster CSV file into a RosterStore, from its snapshot when that is
+ * current. start() loads in pages on a background thread; loadAll() on the caller's.
+ */
+public class RosterLoader {
+
+    /**
+     * Load progress, called on the EDT unless noted
+     */
+    public interface Listener {
+        void pageLoaded(int rowsLoaded, double fraction);
+
+        /**
+         * Called on the loading thread once every row is in; a failure goes to finished()
+         */
+        default void loaded() throws IOException {
+        }
+
+        /**
+         * The snapshot could not be read or written; the roster itself is fine
+         */
+        default void snapshotFailed(IOException error) {
+        }
+
+        /**
+         * @param error the failure, or null if the whole file was loaded
+         */
+        void finished(IOException error);
+    }
+
+    static final int FIRST_PAGE_ROWS = 128;
+    static final int PAGE_ROWS = 4096;
+
+    private final Path path;
+    private final Path snapshot;
+    private final RosterStore store;
+    private final AtomicBoolean progressPending = new AtomicBoolean();
+    private String[][] page = new String[FIRST_PAGE_ROWS][];
+    private int pageSize;
+    private int loaded;
+
+    public RosterLoader(Path path, RosterStore store) {
+        this(path, store, RosterSnapshot.pathFor(path));
+    }
+
+    /**
+     * @param snapshot the snapshot to use, or null to always parse the CSV
+     */
+    public RosterLoader(Path path, RosterStore store, Path snapshot) {
+        this.path = path;
+        this.snapshot = snapshot;
+        this.store = store;
+    }
+
+    public void loadAll() throws IOException {
+        if (loadSnapshot(null)) return;
+        boolean fresh = store.rowLimit() == 0;
+        long[] stamp = RosterSnapshot.stamp(path);
+        stream(null);
+        if (fresh) writeSnapshot(stamp, null);
+    }
+
+    public Thread start(Listener listener) {
+        Thread t = new Thread(() -> {
+            IOException error = null;
+            try {
+                if (!loadSnapshot(listener)) {
+                    boolean fresh = store.rowLimit() == 0;
+                    long[] stamp = RosterSnapshot.stamp(path);
+                    stream(listener);
+                    if (fresh) writeSnapshot(stamp, listener);
+                }
+                listener.loaded();
+            } catch (IOException e) {
+                error = e;
+            }
+            IOException failure = error;
+            SwingUtilities.invokeLater(() -> listener.finished(failure));
+        }, "roster-loader");
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    private void stream(Listener listener) throws IOException {
+        long total = Math.max(1, Files.size(path));
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(path))) {
+            RosterCSVReader reader = new RosterCSVReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            reader.read((parts, count, recordIndex) -> {
+                if (recordIndex == 0) return;
+                if (count >= 1 && parts[0].indexOf('\t') >= 0 && isBlankAfterFirst(parts, count)) {
+                    parts = parts[0].split("\t");
+                    count = parts.length;
+                }
+                if (count < 5) return;
+                page[pageSize++] = new String[]{parts[0].trim(), parts[1].trim(), parts[2].trim(),
+                        parts[3].trim(), parts[4].trim()};
+                if (pageSize == page.length) flushPage(listener, (double) in.count / total);
+            });
+            flushPage(listener, 1.0);
+        }
+    }
+
+    /**
+     * Load from a current snapshot if the store is still empty
+     */
+    private boolean loadSnapshot(Listener listener) throws IOException {
+        if (snapshot == null || store.rowLimit() != 0) return false;
+        RosterSnapshot snap;
+        try {
+            snap = RosterSnapshot.read(snapshot, path);
+        } catch (IOException e) {
+            reportSnapshotFailure(listener, e);
+            return false;
+        }
+        if (snap == null) return false;
+        int n = snap.rowCount();
+        int first = listener == null ? 0 : Math.min(FIRST_PAGE_ROWS, n);
+        for (int row = 0; row < first; row++) {
+            page[pageSize++] = snap.row(row);
+        }
+        if (first > 0) flushPage(listener, (double) first / n);
+        store.load(snap, first);
+        loaded = n;
+        flushPage(listener, 1.0);
+        return true;
+    }
+
+    /**
+     * Save a snapshot for the next start, stamped with the CSV as it was before parsing
+     */
+    private void writeSnapshot(long[] stamp, Listener listener) {
+        if (snapshot == null) return;
+        try {
+            RosterSnapshot.write(snapshot, stamp, store);
+        } catch (IOException e) {
+            reportSnapshotFailure(listener, e);
+        }
+    }
+
+    private static void reportSnapshotFailure(Listener listener, IOException error) {
+        if (listener != null) SwingUtilities.invokeLater(() -> listener.snapshotFailed(error));
+    }
+
+    private void flushPage(Listener listener, double fraction) {
+        store.addAll(page, pageSize);
+        Arrays.fill(page, 0, pageSize, null);
+        loaded += pageSize;
+        pageSize = 0;
+        if (page.length < PAGE_ROWS) page = new String[PAGE_ROWS][];
+        if (listener != null && progressPending.compareAndSet(false, true)) {
+            int rows = loaded;
+            double done = Math.min(1.0, fraction);
+            SwingUtilities.invokeLater(() -> {
+                progressPending.set(false);
+                listener.pageLoaded(rows, done);
+            });
+        }
+    }
+
+    private static boolean isBlankAfterFirst(String[] parts, int count) {
+        for (int i = 1; i < count; i++) {
+            if (!parts[i].isBlank()) return false;
+        }
+        return true;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(new BufferedInputStream(in, 1 << 16));
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs roster queries for every view and caches results by store version,
+ * so views asking the same question share one answer. Safe for concurrent use.
+ */
+public class RosterQueryEngine {
+
+    /**
+     * A compiled query; null role or type means any
+     */
+    public record Query(String text, String role, String type, RosterStore.SortKey sortKey) {
+        public Query {
+            text = text.trim().toLowerCase(Locale.ROOT);
+        }
+
+        Query unsorted() {
+            return sortKey == null ? this : new Query(text, role, type, null);
+        }
+    }
+
+    static final int MAX_CACHED_ROWS = 4_000_000;
+
+    private record Entry(long version, int[] rows, RosterStore.FacetCounts counts) {
+        int size() {
+            return rows == null ? 0 : rows.length;
+        }
+    }
+
+    private final RosterStore store;
+    private final Map<Query, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private int cachedRows;
+
+    public RosterQueryEngine(RosterStore store) {
+        this.store = store;
+    }
+
+    public RosterStore store() {
+        return store;
+    }
+
+    /**
+     * The query's rows in sort order; shared, do not modify
+     */
+    public int[] rows(Query query) {
+        long version = store.statsVersion();
+        Entry hit = lookup(query, version);
+        if (hit != null) return hit.rows();
+        Entry other = lookupOtherSort(query, version);
+        int[] rows = other != null ? store.sort(other.rows(), query.sortKey(), version) : null;
+        if (rows == null) rows = store.queryAndSort(query.text(), query.role(), query.type(), query.sortKey());
+        remember(query, version, new Entry(version, rows, null));
+        return rows;
+    }
+
+    /**
+     * Counts for the query's filter dropdowns
+     */
+    public RosterStore.FacetCounts counts(Query query) {
+        Query key = query.unsorted();
+        long version = store.statsVersion();
+        Entry hit = lookup(key, version);
+        if (hit != null) return hit.counts();
+        RosterStore.FacetCounts counts = store.facetCounts(query.text(), query.role(), query.type(), null);
+        remember(key, version, new Entry(version, null, counts));
+        return counts;
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+        cachedRows = 0;
+    }
+
+    private synchronized Entry lookup(Query query, long version) {
+        Entry entry = cache.get(query);
+        if (entry == null) return null;
+        if (entry.version() == version) return entry;
+        cache.remove(query);
+        cachedRows -= entry.size();
+        return null;
+    }
+
+    private synchronized Entry lookupOtherSort(Query query, long version) {
+        for (RosterStore.SortKey key : RosterStore.SortKey.values()) {
+            if (key == query.sortKey()) continue;
+            Entry entry = cache.get(new Query(query.text(), query.role(), query.type(), key));
+            if (entry != null && entry.version() == version) return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Cache the entry unless the roster changed while it was computed
+     */
+    private synchronized void remember(Query query, long version, Entry entry) {
+        if (store.statsVersion() != version) return;
+        Entry old = cache.put(query, entry);
+        if (old != null) cachedRows -= old.size();
+        cachedRows += entry.size();
+        Iterator<Entry> eldest = cache.values().iterator();
+        while (cachedRows > MAX_CACHED_ROWS && eldest.hasNext()) {
+            Entry e = eldest.next();
+            if (e == entry) continue;
+            cachedRows -= e.size();
+            eldest.remove();
+        }
+    }
+}
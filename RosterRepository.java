@@ -0,0 +1,195 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Thread-safe write path for the roster. Each change is journaled, then
+ * applied to the store, then reported to listeners on the EDT in batches.
+ */
+public class RosterRepository {
+
+    /**
+     * Notified on the EDT with the changes since the last call, oldest first
+     */
+    public interface Listener {
+        void rosterChanged(List<RosterChange> changes);
+    }
+
+    private final RosterStore store;
+    private final Object writeLock = new Object();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<RosterChange> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean notifyPending = new AtomicBoolean();
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "roster-repository-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private RosterJournal journal;
+    private volatile Consumer<IOException> compactionFailureListener = error -> { };
+
+    public RosterRepository(RosterStore store) {
+        this.store = store;
+    }
+
+    public RosterStore store() {
+        return store;
+    }
+
+    /**
+     * Replay the journal onto the loaded store and journal every later change; call off the EDT
+     */
+    public void openJournal(Path base) throws IOException {
+        synchronized (writeLock) {
+            RosterJournal opened = new RosterJournal(base);
+            opened.replay(new RosterJournal.Applier() {
+                @Override
+                public void add(String[] row) {
+                    store.add(row);
+                }
+
+                @Override
+                public void update(String[] oldRow, String[] newRow) {
+                    int r = store.find(oldRow);
+                    if (r >= 0) {
+                        store.update(r, newRow);
+                    }
+                }
+
+                @Override
+                public void delete(String[] row) {
+                    int r = store.find(row);
+                    if (r >= 0) store.remove(r);
+                }
+            });
+            journal = opened;
+            scheduleCompaction();
+            fireChanged(RosterChange.Kind.RESET, -1, null, null);
+        }
+    }
+
+    /**
+     * Add a person from CSV fields and return the new row id
+     */
+    public int add(String[] fields) throws IOException {
+        synchronized (writeLock) {
+            String[] newRow = fields.clone();
+            journal().recordAdd(newRow);
+            int row = store.add(newRow);
+            fireChanged(RosterChange.Kind.ADDED, row, null, newRow);
+            scheduleCompaction();
+            return row;
+        }
+    }
+
+    /**
+     * Replace a person's fields, or return false if the row is gone
+     */
+    public boolean update(int row, String[] fields) throws IOException {
+        synchronized (writeLock) {
+            RosterJournal j = journal();
+            String[] oldRow = store.liveRow(row);
+            if (oldRow == null) return false;
+            String[] newRow = fields.clone();
+            j.recordUpdate(oldRow, newRow);
+            store.update(row, newRow);
+            fireChanged(RosterChange.Kind.UPDATED, row, oldRow, newRow);
+            scheduleCompaction();
+            return true;
+        }
+    }
+
+    /**
+     * Remove a person, or return false if the row is already gone
+     */
+    public boolean remove(int row) throws IOException {
+        synchronized (writeLock) {
+            RosterJournal j = journal();
+            String[] oldRow = store.liveRow(row);
+            if (oldRow == null) return false;
+            j.recordDelete(oldRow);
+            store.remove(row);
+            fireChanged(RosterChange.Kind.REMOVED, row, oldRow, null);
+            scheduleCompaction();
+            return true;
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Report failed background compactions on the EDT
+     */
+    public void onCompactionFailed(Consumer<IOException> listener) {
+        compactionFailureListener = listener;
+    }
+
+    private RosterJournal journal() {
+        if (journal == null) throw new IllegalStateException("The roster is still loading");
+        return journal;
+    }
+
+    /**
+     * Compact on the background thread once the journal asks for it
+     */
+    private void scheduleCompaction() {
+        if (!journal.needsCompaction() || !compactionQueued.compareAndSet(false, true)) return;
+        compactor.execute(() -> {
+            try {
+                Future<?> done;
+                synchronized (writeLock) {
+                    compactionQueued.set(false);
+                    done = journal.needsCompaction() ? journal.compact(store.rows()) : null;
+                }
+                if (done != null) done.get();
+            } catch (IOException e) {
+                fireCompactionFailed(e);
+            } catch (ExecutionException e) {
+                fireCompactionFailed(e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private void fireCompactionFailed(IOException error) {
+        SwingUtilities.invokeLater(() -> compactionFailureListener.accept(error));
+    }
+
+    /**
+     * Queue a change for listeners; called under the writer lock
+     */
+    private void fireChanged(RosterChange.Kind kind, int row, String[] oldRow, String[] newRow) {
+        pending.add(new RosterChange(kind, row, oldRow, newRow, store.statsVersion()));
+        if (!notifyPending.compareAndSet(false, true)) return;
+        SwingUtilities.invokeLater(() -> {
+            notifyPending.set(false);
+            List<RosterChange> changes = new ArrayList<>();
+            for (RosterChange change; (change = pending.poll()) != null; ) {
+                changes.add(change);
+            }
+            if (changes.isEmpty()) return;
+            List<RosterChange> batch = List.copyOf(changes);
+            for (Listener listener : listeners) {
+                listener.rosterChanged(batch);
+            }
+        });
+    }
+}
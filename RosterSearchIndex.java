@@ -0,0 +1,110 @@
+import java.util.*;
+
+/**
+ * Substring search over roster names and positions through trigram
+ * postings; queries under three characters scan the keys.
+ */
+class RosterSearchIndex {
+
+    interface PostingVisitor {
+        void visit(long trigram, RowList rows);
+    }
+
+    private String[] nameKeys = new String[256];
+    private String[] positionKeys = new String[256];
+    private final Map<String, String> canonicalPositions = new HashMap<>();
+    private Map<Long, RowList> postings = new HashMap<>();
+    private boolean postingsPending;
+
+    void index(int row, String name, String position) {
+        indexKeys(row, name, position);
+        addTrigrams(row, nameKeys[row]);
+        addTrigrams(row, positionKeys[row]);
+    }
+
+    /**
+     * Record the row's keys only; its postings come from adoptPostings()
+     */
+    void indexKeys(int row, String name, String position) {
+        if (row >= nameKeys.length) {
+            int n = Math.max(row + 1, nameKeys.length * 2);
+            nameKeys = Arrays.copyOf(nameKeys, n);
+            positionKeys = Arrays.copyOf(positionKeys, n);
+        }
+        String nameKey = name.toLowerCase(Locale.ROOT);
+        String positionKey = position.toLowerCase(Locale.ROOT);
+        String existing = canonicalPositions.putIfAbsent(positionKey, positionKey);
+        if (existing != null) positionKey = existing;
+        nameKeys[row] = nameKey;
+        positionKeys[row] = positionKey;
+    }
+
+    /**
+     * Scan keys instead of postings until adoptPostings() runs
+     */
+    void awaitPostings() {
+        postingsPending = true;
+    }
+
+    void adoptPostings(Map<Long, RowList> prebuilt) {
+        postings = prebuilt;
+        postingsPending = false;
+    }
+
+    void forEachPosting(PostingVisitor visitor) {
+        for (Map.Entry<Long, RowList> e : postings.entrySet()) {
+            visitor.visit(e.getKey(), e.getValue());
+        }
+    }
+
+    void unindex(int row) {
+        removeTrigrams(row, nameKeys[row]);
+        removeTrigrams(row, positionKeys[row]);
+        nameKeys[row] = null;
+        positionKeys[row] = null;
+    }
+
+    boolean matches(int row, String lowerQuery) {
+        return nameKeys[row].contains(lowerQuery) || positionKeys[row].contains(lowerQuery);
+    }
+
+    /**
+     * Candidate rows for a query, or null if it cannot use the index; confirm with matches()
+     */
+    RowList candidates(String lowerQuery) {
+        if (lowerQuery.length() < 3 || postingsPending) return null;
+        RowList smallest = null;
+        List<RowList> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= lowerQuery.length(); i++) {
+            RowList rows = postings.get(trigram(lowerQuery, i));
+            if (rows == null) return new RowList();
+            lists.add(rows);
+            if (smallest == null || rows.size() < smallest.size()) smallest = rows;
+        }
+        RowList result = smallest;
+        for (RowList rows : lists) {
+            if (rows != smallest) result = RowList.intersect(result, rows);
+        }
+        return result;
+    }
+
+    private void addTrigrams(int row, String key) {
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            postings.computeIfAbsent(trigram(key, i), k -> new RowList()).insert(row);
+        }
+    }
+
+    private void removeTrigrams(int row, String key) {
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            Long t = trigram(key, i);
+            RowList rows = postings.get(t);
+            if (rows == null) continue;
+            rows.delete(row);
+            if (rows.size() == 0) postings.remove(t);
+        }
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
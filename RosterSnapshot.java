@@ -0,0 +1,257 @@
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary copy of a roster CSV file and its indexes for fast startup, ignored
+ * once the CSV changes. Layout:
+ * <pre>
+ * int magic, int format version, long CSV size, long CSV mtime, long CRC
+ * int dictionary size, then per string: int byte length, UTF-8 bytes
+ * int row count, then name, role, position, number and type id columns
+ * int sort key count, then one row-index permutation per key
+ * int posting count, then per trigram: long trigram, int row count, row indexes
+ * </pre>
+ */
+public class RosterSnapshot {
+    static final int MAGIC = 0x45524f53;
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8;
+    private static final int COLUMNS = 5;
+
+    private final ByteBuffer buf;
+    private final int[] dictOffsets;
+    private final String[] dict;
+    private final int[] columns;
+    private final int rows;
+    private final int ordersAt;
+    private final int orderCount;
+    private final int postingsAt;
+
+    private RosterSnapshot(ByteBuffer buf, int[] dictOffsets, int[] columns, int rows,
+                           int ordersAt, int orderCount, int postingsAt) {
+        this.buf = buf;
+        this.dictOffsets = dictOffsets;
+        this.dict = new String[dictOffsets.length];
+        this.columns = columns;
+        this.rows = rows;
+        this.ordersAt = ordersAt;
+        this.orderCount = orderCount;
+        this.postingsAt = postingsAt;
+    }
+
+    public int rowCount() {
+        return rows;
+    }
+
+    /**
+     * The row's CSV fields: name, role, position, number, type
+     */
+    public String[] row(int row) {
+        return new String[]{string(columns[row]), string(columns[rows + row]), string(columns[2 * rows + row]),
+                string(columns[3 * rows + row]), string(columns[4 * rows + row])};
+    }
+
+    /**
+     * Row indexes in order by key, or null if the snapshot has none
+     */
+    public int[] sortOrder(RosterStore.SortKey key) {
+        if (key.ordinal() >= orderCount) return null;
+        int[] order = new int[rows];
+        buf.duplicate().position(ordersAt + key.ordinal() * rows * 4).asIntBuffer().get(order);
+        return order;
+    }
+
+    void forEachPosting(RosterSearchIndex.PostingVisitor visitor) {
+        ByteBuffer in = buf.duplicate().position(postingsAt);
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            long trigram = in.getLong();
+            int[] posting = new int[in.getInt()];
+            in.asIntBuffer().get(posting);
+            in.position(in.position() + posting.length * 4);
+            visitor.visit(trigram, RowList.of(posting));
+        }
+    }
+
+    /**
+     * Decoded on first use
+     */
+    private String string(int id) {
+        String value = dict[id];
+        if (value == null) {
+            int at = dictOffsets[id];
+            byte[] bytes = new byte[buf.getInt(at)];
+            buf.get(at + 4, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            dict[id] = value;
+        }
+        return value;
+    }
+
+    public static Path pathFor(Path csv) {
+        return csv.resolveSibling(csv.getFileName() + ".snapshot");
+    }
+
+    /**
+     * Size and modification time of the CSV file, for write()
+     */
+    public static long[] stamp(Path csv) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(csv, BasicFileAttributes.class);
+        return new long[]{attrs.size(), attrs.lastModifiedTime().toMillis()};
+    }
+
+    /**
+     * The snapshot, or null if it is missing, damaged or older than the CSV
+     */
+    public static RosterSnapshot read(Path snapshot, Path csv) throws IOException {
+        if (!Files.isRegularFile(snapshot) || !Files.isRegularFile(csv)) return null;
+        long[] stamp = stamp(csv);
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) return null;
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION
+                    || buf.getLong() != stamp[0] || buf.getLong() != stamp[1]) {
+                return null;
+            }
+            long crc = buf.getLong();
+            CRC32 check = new CRC32();
+            check.update(buf.duplicate());
+            if (check.getValue() != crc) return null;
+            try {
+                return decode(buf);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                     | ArithmeticException e) {
+                throw new IOException("Corrupt roster snapshot " + snapshot, e);
+            }
+        }
+    }
+
+    /**
+     * Write every live row, replacing the file atomically; the store must not change meanwhile
+     */
+    public static void write(Path snapshot, long[] csvStamp, RosterStore store) throws IOException {
+        int[] rowIds = store.query("", null, null);
+        List<String[]> rows = store.rows();
+        int n = rows.size();
+        if (rowIds.length != n) throw new IOException("The roster changed while writing a snapshot");
+        Map<String, Integer> dictIds = new HashMap<>();
+        ByteArrayOutputStream dict = new ByteArrayOutputStream();
+        DataOutputStream dictOut = new DataOutputStream(dict);
+        int[] columns = new int[n * COLUMNS];
+        for (int i = 0; i < n; i++) {
+            String[] fields = rows.get(i);
+            for (int c = 0; c < COLUMNS; c++) {
+                Integer id = dictIds.get(fields[c]);
+                if (id == null) {
+                    id = dictIds.size();
+                    dictIds.put(fields[c], id);
+                    byte[] bytes = fields[c].getBytes(StandardCharsets.UTF_8);
+                    dictOut.writeInt(bytes.length);
+                    dictOut.write(bytes);
+                }
+                columns[c * n + i] = id;
+            }
+        }
+        RosterStore.SortKey[] keys = RosterStore.SortKey.values();
+        int[] indexOf = new int[store.rowLimit()];
+        for (int i = 0; i < n; i++) {
+            indexOf[rowIds[i]] = i;
+        }
+        List<Long> trigrams = new ArrayList<>();
+        List<int[]> postings = new ArrayList<>();
+        long[] postingBytes = {0};
+        store.forEachPosting((trigram, list) -> {
+            int[] posting = list.toArray();
+            for (int i = 0; i < posting.length; i++) {
+                posting[i] = indexOf[posting[i]];
+            }
+            trigrams.add(trigram);
+            postings.add(posting);
+            postingBytes[0] += 8 + 4 + posting.length * 4L;
+        });
+        long bodyBytes = 4 + dict.size() + 4 + columns.length * 4L + 4 + (long) keys.length * n * 4 + 4 + postingBytes[0];
+        if (HEADER_BYTES + bodyBytes > Integer.MAX_VALUE) throw new IOException("The roster is too large for a snapshot");
+        ByteBuffer body = ByteBuffer.allocate((int) bodyBytes);
+        body.putInt(dictIds.size()).put(dict.toByteArray());
+        body.putInt(n);
+        body.asIntBuffer().put(columns);
+        body.position(body.position() + columns.length * 4);
+        body.putInt(keys.length);
+        for (RosterStore.SortKey key : keys) {
+            int[] order = store.sort(rowIds, key);
+            for (int i = 0; i < n; i++) {
+                order[i] = indexOf[order[i]];
+            }
+            body.asIntBuffer().put(order);
+            body.position(body.position() + n * 4);
+        }
+        body.putInt(trigrams.size());
+        for (int i = 0; i < trigrams.size(); i++) {
+            int[] posting = postings.get(i);
+            body.putLong(trigrams.get(i)).putInt(posting.length);
+            body.asIntBuffer().put(posting);
+            body.position(body.position() + posting.length * 4);
+        }
+        body.flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(csvStamp[0]).putLong(csvStamp[1]).putLong(crc.getValue());
+        header.flip();
+        Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) out.write(header);
+            while (body.hasRemaining()) out.write(body);
+        }
+        try {
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Check every length and id stays inside the file
+     */
+    private static RosterSnapshot decode(ByteBuffer buf) {
+        int[] dictOffsets = new int[buf.getInt()];
+        for (int i = 0; i < dictOffsets.length; i++) {
+            dictOffsets[i] = buf.position();
+            int len = buf.getInt();
+            if (len < 0) throw new IndexOutOfBoundsException("String length " + len);
+            buf.position(buf.position() + len);
+        }
+        int n = buf.getInt();
+        int[] columns = new int[Math.multiplyExact(n, COLUMNS)];
+        buf.asIntBuffer().get(columns);
+        buf.position(buf.position() + columns.length * 4);
+        for (int id : columns) {
+            if (id < 0 || id >= dictOffsets.length) throw new IndexOutOfBoundsException("Dictionary id " + id);
+        }
+        int orderCount = Math.min(buf.getInt(), RosterStore.SortKey.values().length);
+        int ordersAt = buf.position();
+        buf.position(ordersAt + Math.multiplyExact(orderCount, n * 4));
+        int postingsAt = buf.position();
+        int postings = buf.getInt();
+        for (int i = 0; i < postings; i++) {
+            buf.getLong();
+            int len = buf.getInt();
+            if (len < 0 || len > n) throw new IndexOutOfBoundsException("Posting length " + len);
+            buf.position(buf.position() + len * 4);
+        }
+        return new RosterSnapshot(buf.rewind(), dictOffsets, columns, n, ordersAt, orderCount, postingsAt);
+    }
+}
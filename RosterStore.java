@@ -0,0 +1,786 @@
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Column-oriented roster held in memory, one row id per person.
+ * Role, type and position are indexed by value and names by trigram, so
+ * filters and search never walk the whole roster. Safe for concurrent use.
+ */
+public class RosterStore {
+
+    public enum SortKey { NAME, POSITION, NUMBER }
+
+    /**
+     * Rows per value of each facet; values with no rows are left out
+     */
+    public record FacetCounts(Map<String, Integer> roles, Map<String, Integer> types,
+                              Map<String, Integer> positions) {
+    }
+
+    public static final int NO_NUMBER = -1;
+    private static final int[] NO_ROWS = new int[0];
+    private static final int DENSE_NUMBERS = 1000;
+    private static final int ANY_VALUE = -2;
+    private static final int LOAD_PAGE_ROWS = 4096;
+    private static final int INTERRUPT_CHECK_ROWS = 4096;
+
+    private String[] names = new String[256];
+    private final FacetColumn roles = new FacetColumn(256);
+    private final FacetColumn positions = new FacetColumn(256);
+    private final FacetColumn types = new FacetColumn(256);
+    private int[] numbers = new int[256];
+    /** Number as written where it differs from the parsed one, e.g. "07" or "TBD" */
+    private String[] numberTexts = new String[256];
+    private String[] labels = new String[256];
+    private volatile int rowLimit;
+    private volatile int liveCount;
+    private final StampedLock lock = new StampedLock();
+
+    private RowList[] byNumber = new RowList[100];
+    private final Map<Integer, RowList> byLargeNumber = new HashMap<>();
+    private final RowList noNumber = new RowList();
+    private final RosterSearchIndex search = new RosterSearchIndex();
+    private final RosterAggregates aggregates = new RosterAggregates();
+    private boolean searchDeferred;
+    private final SortOrder[] sortOrders = {
+            new SortOrder((a, b) -> {
+                int c = names[a].compareTo(names[b]);
+                return c != 0 ? c : Integer.compare(a, b);
+            }),
+            new SortOrder((a, b) -> {
+                int ca = positions.codeAt(a), cb = positions.codeAt(b);
+                int c = ca == cb ? 0 : positions.value(ca).compareTo(positions.value(cb));
+                return c != 0 ? c : Integer.compare(a, b);
+            }),
+            new SortOrder((a, b) -> {
+                int c = Integer.compareUnsigned(numbers[a], numbers[b]);
+                return c != 0 ? c : Integer.compare(a, b);
+            })
+    };
+
+    /**
+     * Parse a jersey number, or NO_NUMBER if it is not a plain non-negative integer
+     */
+    public static int parseNumber(String text) {
+        if (text == null) return NO_NUMBER;
+        String t = text.trim();
+        if (t.isEmpty() || t.length() > 9) return NO_NUMBER;
+        int value = 0;
+        for (int i = 0; i < t.length(); i++) {
+            int d = t.charAt(i) - '0';
+            if (d < 0 || d > 9) return NO_NUMBER;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Add a row of CSV fields and return its id
+     */
+    public int add(String[] row) {
+        long stamp = lock.writeLock();
+        try {
+            return append(row);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Add the first count rows under one lock
+     */
+    public void addAll(String[][] rows, int count) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < count; i++) {
+                append(rows[i]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void update(int row, String[] fields) {
+        long stamp = lock.writeLock();
+        try {
+            checkLive(row);
+            unindex(row);
+            set(row, fields);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(int row) {
+        long stamp = lock.writeLock();
+        try {
+            checkLive(row);
+            unindex(row);
+            names[row] = null;
+            labels[row] = null;
+            numberTexts[row] = null;
+            liveCount--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean isLive(int row) {
+        return read(row, (s, r) -> s.live(r));
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * One past the highest row id ever handed out
+     */
+    public int rowLimit() {
+        return rowLimit;
+    }
+
+    public String name(int row) { return read(row, (s, r) -> s.names[r]); }
+    public String role(int row) { return read(row, (s, r) -> s.live(r) ? s.roles.valueAt(r) : null); }
+    public String position(int row) { return read(row, (s, r) -> s.live(r) ? s.positions.valueAt(r) : null); }
+    public String type(int row) { return read(row, (s, r) -> s.live(r) ? s.types.valueAt(r) : null); }
+
+    public int number(int row) {
+        long stamp = lock.tryOptimisticRead();
+        int[] column = numbers;
+        int n = row < column.length ? column[row] : NO_NUMBER;
+        if (lock.validate(stamp)) return n;
+        stamp = lock.readLock();
+        try {
+            return numbers[row];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public String numberText(int row) {
+        return read(row, (s, r) -> s.live(r) ? s.numberTextOf(r) : formatNumber(NO_NUMBER));
+    }
+
+    private String numberTextOf(int row) {
+        String text = numberTexts[row];
+        return text != null ? text : formatNumber(numbers[row]);
+    }
+
+    private static String formatNumber(int number) {
+        return number == NO_NUMBER ? "N/A" : Integer.toString(number);
+    }
+
+    /**
+     * List label "#number - name (position)"
+     */
+    public String displayLabel(int row) {
+        String label = liveLabel(row);
+        if (label == null) throw new IllegalArgumentException("No roster row " + row);
+        return label;
+    }
+
+    public String liveLabel(int row) {
+        long stamp = lock.tryOptimisticRead();
+        String label = null;
+        try {
+            label = live(row) ? labelOf(row) : null;
+        } catch (RuntimeException e) {
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            label = live(row) ? labelOf(row) : null;
+        }
+        if (label != null && labels[row] == null) {
+            long ws = lock.tryConvertToWriteLock(stamp);
+            if (ws != 0) {
+                labels[row] = label;
+                stamp = ws;
+            }
+        }
+        if (StampedLock.isReadLockStamp(stamp)) lock.unlockRead(stamp);
+        else if (StampedLock.isWriteLockStamp(stamp)) lock.unlockWrite(stamp);
+        return label;
+    }
+
+    private String labelOf(int row) {
+        String label = labels[row];
+        return label != null ? label
+                : "#" + numberTextOf(row) + " - " + names[row] + " (" + positions.valueAt(row) + ")";
+    }
+
+    /**
+     * Bumped by every add, edit and remove
+     */
+    public long statsVersion() {
+        return aggregates.version();
+    }
+
+    /**
+     * Append the roster totals as bullet lines for the statistics panel
+     */
+    public void appendStats(StringBuilder sb) {
+        long stamp = lock.readLock();
+        try {
+            aggregates.describe(sb);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * The row as CSV fields: name, role, position, number, type
+     */
+    public String[] row(int row) {
+        String[] fields = liveRow(row);
+        if (fields == null) throw new IllegalArgumentException("No roster row " + row);
+        return fields;
+    }
+
+    /**
+     * The row as CSV fields, or null if it is not live
+     */
+    public String[] liveRow(int row) {
+        return read(row, (s, r) -> s.live(r) ? s.fields(r) : null);
+    }
+
+    /**
+     * All live rows as CSV fields, in row id order
+     */
+    public List<String[]> rows() {
+        long stamp = lock.readLock();
+        try {
+            List<String[]> out = new ArrayList<>(liveCount);
+            for (int r = 0; r < rowLimit; r++) {
+                if (names[r] != null) out.add(fields(r));
+            }
+            return out;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Sorted ids of rows with the given role and type; null matches any
+     */
+    public int[] select(String role, String type) {
+        return select(role, type, null);
+    }
+
+    /**
+     * Sorted ids of rows with the given role, type and position; null matches any
+     */
+    public int[] select(String role, String type, String position) {
+        long stamp = lock.readLock();
+        try {
+            return selectLocked(role, type, position);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int[] selectLocked(String role, String type, String position) {
+        int roleCode = facetCode(roles, role);
+        int typeCode = facetCode(types, type);
+        int positionCode = facetCode(positions, position);
+        if (roleCode == FacetColumn.NONE || typeCode == FacetColumn.NONE || positionCode == FacetColumn.NONE) {
+            return NO_ROWS;
+        }
+        FacetColumn rarest = null;
+        int rarestCode = ANY_VALUE;
+        if (roleCode != ANY_VALUE) {
+            rarest = roles;
+            rarestCode = roleCode;
+        }
+        if (typeCode != ANY_VALUE && (rarest == null || types.count(typeCode) < rarest.count(rarestCode))) {
+            rarest = types;
+            rarestCode = typeCode;
+        }
+        if (positionCode != ANY_VALUE && (rarest == null || positions.count(positionCode) < rarest.count(rarestCode))) {
+            rarest = positions;
+            rarestCode = positionCode;
+        }
+        if (rarest != null && !rarest.isDense(rarestCode)) {
+            RowList rows = rarest.rowsOf(rarestCode);
+            int[] out = new int[rows.size()];
+            int n = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                int r = rows.get(i);
+                if (matchesFacets(r, roleCode, typeCode, positionCode)) out[n++] = r;
+            }
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        }
+        long[] mask = facetMask(roleCode, typeCode, positionCode);
+        if (mask == null) {
+            int[] all = new int[liveCount];
+            int n = 0;
+            for (int r = 0; r < rowLimit; r++) {
+                if (names[r] != null) all[n++] = r;
+            }
+            return all;
+        }
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        int[] out = new int[count];
+        int n = 0;
+        for (int i = 0; i < mask.length; i++) {
+            for (long word = mask[i]; word != 0; word &= word - 1) {
+                out[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * AND of the bitmaps for the given codes, or null if all are ANY_VALUE; may be shared, do not modify
+     */
+    private long[] facetMask(int roleCode, int typeCode, int positionCode) {
+        long[] mask = null;
+        mask = and(mask, roles, roleCode);
+        mask = and(mask, types, typeCode);
+        mask = and(mask, positions, positionCode);
+        return mask;
+    }
+
+    private static long[] and(long[] mask, FacetColumn column, int code) {
+        if (code == ANY_VALUE) return mask;
+        long[] bits = column.isDense(code) ? column.bitsOf(code) : toBits(column.rowsOf(code));
+        if (mask == null) return bits;
+        long[] out = new long[Math.min(mask.length, bits.length)];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = mask[i] & bits[i];
+        }
+        return out;
+    }
+
+    private static long[] toBits(RowList rows) {
+        if (rows.size() == 0) return new long[0];
+        long[] bits = new long[(rows.get(rows.size() - 1) >>> 6) + 1];
+        for (int i = 0; i < rows.size(); i++) {
+            int row = rows.get(i);
+            bits[row >>> 6] |= 1L << row;
+        }
+        return bits;
+    }
+
+    /**
+     * How many rows each role, type and position value would match alongside the other filters
+     */
+    public FacetCounts facetCounts(String text, String role, String type, String position) {
+        long stamp = lock.readLock();
+        try {
+            int roleCode = facetCode(roles, role);
+            int typeCode = facetCode(types, type);
+            int positionCode = facetCode(positions, position);
+            int[] roleCounts = new int[roles.valueCount()];
+            int[] typeCounts = new int[types.valueCount()];
+            int[] positionCounts = new int[positions.valueCount()];
+            if (text.isBlank()) {
+                countFacet(roles, roleCounts, typeCode, positionCode, types, positions);
+                countFacet(types, typeCounts, roleCode, positionCode, roles, positions);
+                countFacet(positions, positionCounts, roleCode, typeCode, roles, types);
+            } else {
+                int[] matched = queryLocked(text, null, null);
+                for (int i = 0; i < matched.length; i++) {
+                    checkInterrupted(i);
+                    int r = matched[i];
+                    int rc = roles.codeAt(r), tc = types.codeAt(r), pc = positions.codeAt(r);
+                    boolean roleOk = roleCode == ANY_VALUE || rc == roleCode;
+                    boolean typeOk = typeCode == ANY_VALUE || tc == typeCode;
+                    boolean positionOk = positionCode == ANY_VALUE || pc == positionCode;
+                    if (typeOk && positionOk) roleCounts[rc]++;
+                    if (roleOk && positionOk) typeCounts[tc]++;
+                    if (roleOk && typeOk) positionCounts[pc]++;
+                }
+            }
+            return new FacetCounts(countMap(roles, roleCounts), countMap(types, typeCounts),
+                    countMap(positions, positionCounts));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static void countFacet(FacetColumn column, int[] counts, int codeA, int codeB,
+                                   FacetColumn columnA, FacetColumn columnB) {
+        if (codeA == FacetColumn.NONE || codeB == FacetColumn.NONE) return;
+        long[] mask = and(and(null, columnA, codeA), columnB, codeB);
+        for (int c = 0; c < counts.length; c++) {
+            if (mask == null) {
+                counts[c] = column.count(c);
+                continue;
+            }
+            int n = 0;
+            if (column.isDense(c)) {
+                long[] bits = column.bitsOf(c);
+                for (int i = Math.min(mask.length, bits.length) - 1; i >= 0; i--) {
+                    n += Long.bitCount(mask[i] & bits[i]);
+                }
+            } else {
+                RowList rows = column.rowsOf(c);
+                for (int i = 0; i < rows.size(); i++) {
+                    int r = rows.get(i);
+                    if ((r >>> 6) < mask.length && (mask[r >>> 6] & (1L << r)) != 0) n++;
+                }
+            }
+            counts[c] = n;
+        }
+    }
+
+    private static Map<String, Integer> countMap(FacetColumn column, int[] counts) {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) map.put(column.value(c), counts[c]);
+        }
+        return map;
+    }
+
+    /**
+     * Sorted ids of rows whose name or position contains the text, or whose number equals it
+     */
+    public int[] query(String text, String role, String type) {
+        long stamp = lock.readLock();
+        try {
+            return queryLocked(text, role, type);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int[] queryAndSort(String text, String role, String type, SortKey key) {
+        long stamp = lock.readLock();
+        try {
+            return sortLocked(queryLocked(text, role, type), key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Whether query() with the same arguments would return the row
+     */
+    public boolean matches(int row, String text, String role, String type) {
+        long stamp = lock.readLock();
+        try {
+            if (!live(row) || !matchesFacets(row, facetCode(roles, role), facetCode(types, type), ANY_VALUE)) return false;
+            String q = text.trim().toLowerCase(Locale.ROOT);
+            if (q.isEmpty()) return true;
+            int qNumber = parseNumber(q);
+            return search.matches(row, q) || (qNumber != NO_NUMBER && numbers[row] == qNumber);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Where the row goes in sorted[0, count), or -1 if the roster changed since version
+     */
+    public int insertionPoint(int[] sorted, int count, int row, SortKey key, long version) {
+        long stamp = lock.readLock();
+        try {
+            if (aggregates.version() != version) return -1;
+            return sortOrders[key.ordinal()].insertionPoint(sorted, count, row);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int[] queryLocked(String text, String role, String type) {
+        String q = text.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) return selectLocked(role, type, null);
+        int qNumber = parseNumber(q);
+        RowList result = new RowList();
+        RowList candidates = search.candidates(q);
+        if (candidates == null) {
+            int[] selected = selectLocked(role, type, null);
+            for (int i = 0; i < selected.length; i++) {
+                checkInterrupted(i);
+                int r = selected[i];
+                if (search.matches(r, q) || (qNumber != NO_NUMBER && numbers[r] == qNumber)) {
+                    result.insert(r);
+                }
+            }
+            return result.toArray();
+        }
+        int roleCode = facetCode(roles, role);
+        int typeCode = facetCode(types, type);
+        for (int i = 0; i < candidates.size(); i++) {
+            checkInterrupted(i);
+            int r = candidates.get(i);
+            if (matchesFacets(r, roleCode, typeCode, ANY_VALUE) && search.matches(r, q)) result.insert(r);
+        }
+        if (qNumber != NO_NUMBER) {
+            RowList holders = holdersOf(qNumber);
+            for (int i = 0; holders != null && i < holders.size(); i++) {
+                int r = holders.get(i);
+                if (matchesFacets(r, roleCode, typeCode, ANY_VALUE)) result.insert(r);
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Throw CancellationException if the thread was interrupted, every so many rows
+     */
+    private static void checkInterrupted(int i) {
+        if (i % INTERRUPT_CHECK_ROWS == 0 && Thread.interrupted()) {
+            throw new CancellationException("Roster query interrupted");
+        }
+    }
+
+    /**
+     * The rows ordered by key, ties broken by row id
+     */
+    public int[] sort(int[] rows, SortKey key) {
+        long stamp = lock.readLock();
+        try {
+            return sortLocked(rows, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Like sort(), or null if the roster changed since version
+     */
+    public int[] sort(int[] rows, SortKey key, long version) {
+        long stamp = lock.readLock();
+        try {
+            return aggregates.version() == version ? sortLocked(rows, key) : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int[] sortLocked(int[] rows, SortKey key) {
+        // Orders build state lazily, so readers take turns per key.
+        SortOrder order = sortOrders[key.ordinal()];
+        synchronized (order) {
+            return order.sort(rows, this);
+        }
+    }
+
+    public int[] rowsWithPosition(String position) {
+        long stamp = lock.readLock();
+        try {
+            return selectLocked(null, null, position);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int[] rowsWithNumber(int number) {
+        long stamp = lock.readLock();
+        try {
+            RowList rows = holdersOf(number);
+            return rows == null ? NO_ROWS : rows.toArray();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private RowList holdersOf(int number) {
+        return number == NO_NUMBER ? noNumber
+                : number >= 0 && number < byNumber.length ? byNumber[number]
+                : byLargeNumber.get(number);
+    }
+
+    /**
+     * First live row whose fields equal the given CSV fields, or -1
+     */
+    public int find(String[] row) {
+        long stamp = lock.readLock();
+        try {
+            RowList holders = holdersOf(parseNumber(row[3]));
+            for (int i = 0; holders != null && i < holders.size(); i++) {
+                int r = holders.get(i);
+                if (row[0].equals(names[r]) && row[1].equals(roles.valueAt(r)) && row[2].equals(positions.valueAt(r))
+                        && row[3].equals(numberTextOf(r)) && row[4].equals(types.valueAt(r))) {
+                    return r;
+                }
+            }
+            return -1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Read one row without locking, retrying under the read lock if a write overlapped
+     */
+    private <T> T read(int row, RowReader<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T value = reader.read(this, row);
+                if (lock.validate(stamp)) return value;
+            } catch (RuntimeException e) {
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.read(this, row);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private interface RowReader<T> {
+        T read(RosterStore store, int row);
+    }
+
+    private boolean live(int row) {
+        return row >= 0 && row < rowLimit && names[row] != null;
+    }
+
+    private String[] fields(int row) {
+        return new String[]{names[row], roles.valueAt(row), positions.valueAt(row), numberTextOf(row),
+                types.valueAt(row)};
+    }
+
+    /**
+     * Add the snapshot's rows from index from on, adopting its search postings
+     * and sort orders. Nothing else may write to the store meanwhile.
+     */
+    void load(RosterSnapshot snapshot, int from) {
+        int n = snapshot.rowCount();
+        long stamp = lock.writeLock();
+        try {
+            if (rowLimit != from || liveCount != from) throw new IllegalStateException("The roster does not match the snapshot");
+            search.awaitPostings();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        String[][] page = new String[LOAD_PAGE_ROWS][];
+        for (int start = from; start < n; start += LOAD_PAGE_ROWS) {
+            int count = Math.min(LOAD_PAGE_ROWS, n - start);
+            for (int i = 0; i < count; i++) {
+                page[i] = snapshot.row(start + i);
+            }
+            stamp = lock.writeLock();
+            try {
+                searchDeferred = true;
+                for (int i = 0; i < count; i++) {
+                    int row = append(page[i]);
+                    search.indexKeys(row, names[row], positions.valueAt(row));
+                }
+            } finally {
+                searchDeferred = false;
+                lock.unlockWrite(stamp);
+            }
+        }
+        Map<Long, RowList> postings = new HashMap<>();
+        snapshot.forEachPosting(postings::put);
+        int[][] orders = new int[SortKey.values().length][];
+        for (SortKey key : SortKey.values()) {
+            int[] order = snapshot.sortOrder(key);
+            if (order != null && order.length == n) orders[key.ordinal()] = order;
+        }
+        stamp = lock.writeLock();
+        try {
+            if (rowLimit != n || liveCount != n) throw new IllegalStateException("The roster changed while loading the snapshot");
+            search.adoptPostings(postings);
+            for (SortKey key : SortKey.values()) {
+                if (orders[key.ordinal()] != null) sortOrders[key.ordinal()].install(orders[key.ordinal()]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void forEachPosting(RosterSearchIndex.PostingVisitor visitor) {
+        long stamp = lock.readLock();
+        try {
+            search.forEachPosting(visitor);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int append(String[] fields) {
+        if (rowLimit == names.length) grow();
+        int row = rowLimit;
+        set(row, fields);
+        liveCount++;
+        rowLimit = row + 1;
+        return row;
+    }
+
+    private void set(int row, String[] fields) {
+        String name = fields[0];
+        int number = parseNumber(fields[3]);
+        names[row] = name;
+        labels[row] = null;
+        roles.set(row, fields[1]);
+        positions.set(row, fields[2]);
+        types.set(row, fields[4]);
+        numbers[row] = number;
+        numberTexts[row] = fields[3].equals(formatNumber(number)) ? null : fields[3];
+        RowList holders = numberList(number);
+        holders.insert(row);
+        aggregates.add(roles.valueAt(row), types.valueAt(row), positions.valueAt(row),
+                number == NO_NUMBER ? 0 : holders.size());
+        if (!searchDeferred) search.index(row, name, positions.valueAt(row));
+        for (SortOrder order : sortOrders) {
+            order.insert(row);
+        }
+    }
+
+    /**
+     * The value's code, ANY_VALUE for null, or FacetColumn.NONE if never seen
+     */
+    private static int facetCode(FacetColumn column, String value) {
+        return value == null ? ANY_VALUE : column.code(value);
+    }
+
+    private boolean matchesFacets(int row, int roleCode, int typeCode, int positionCode) {
+        return (roleCode == ANY_VALUE || roles.codeAt(row) == roleCode)
+                && (typeCode == ANY_VALUE || types.codeAt(row) == typeCode)
+                && (positionCode == ANY_VALUE || positions.codeAt(row) == positionCode);
+    }
+
+    private void unindex(int row) {
+        for (SortOrder order : sortOrders) {
+            order.delete(row);
+        }
+        roles.unindex(row);
+        types.unindex(row);
+        positions.unindex(row);
+        RowList holders = numberList(numbers[row]);
+        aggregates.remove(roles.valueAt(row), types.valueAt(row), positions.valueAt(row),
+                numbers[row] == NO_NUMBER ? 0 : holders.size());
+        holders.delete(row);
+        search.unindex(row);
+    }
+
+    private RowList numberList(int number) {
+        if (number == NO_NUMBER) return noNumber;
+        if (number >= DENSE_NUMBERS) return byLargeNumber.computeIfAbsent(number, k -> new RowList());
+        if (number >= byNumber.length) {
+            byNumber = Arrays.copyOf(byNumber, Math.min(DENSE_NUMBERS, Math.max(number + 1, byNumber.length * 2)));
+        }
+        RowList rows = byNumber[number];
+        if (rows == null) {
+            rows = new RowList();
+            byNumber[number] = rows;
+        }
+        return rows;
+    }
+
+    private void checkLive(int row) {
+        if (!live(row)) throw new IllegalArgumentException("No roster row " + row);
+    }
+
+    private void grow() {
+        int n = names.length * 2;
+        names = Arrays.copyOf(names, n);
+        roles.grow(n);
+        positions.grow(n);
+        types.grow(n);
+        numbers = Arrays.copyOf(numbers, n);
+        labels = Arrays.copyOf(labels, n);
+        numberTexts = Arrays.copyOf(numberTexts, n);
+    }
+}
@@ -0,0 +1,97 @@
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model over the row ids of a {@link RowListModel}; cells are read
+ * from the store as JTable paints them
+ */
+public class RosterTableModel extends AbstractTableModel implements ListDataListener {
+    private static final long serialVersionUID = 1L;
+    static final int NAME = 0;
+    static final int NUMBER = 1;
+    static final int POSITION = 2;
+    static final int ROLE = 3;
+    static final int TYPE = 4;
+    private static final String[] COLUMNS = {"Name", "#", "Position", "Role", "Type"};
+
+    private final RosterStore store;
+    private final RowListModel rows;
+
+    public RosterTableModel(RosterStore store, RowListModel rows) {
+        this.store = store;
+        this.rows = rows;
+        rows.addListDataListener(this);
+    }
+
+    /**
+     * The roster row id shown at the table row
+     */
+    public int getRowAt(int index) {
+        return rows.getRowAt(index);
+    }
+
+    /**
+     * The column's sort key, or null
+     */
+    public static RosterStore.SortKey sortKey(int column) {
+        return switch (column) {
+            case NAME -> RosterStore.SortKey.NAME;
+            case NUMBER -> RosterStore.SortKey.NUMBER;
+            case POSITION -> RosterStore.SortKey.POSITION;
+            default -> null;
+        };
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.getSize();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    /**
+     * The cell's text, or empty if the row was removed since the last event
+     */
+    @Override
+    public Object getValueAt(int index, int column) {
+        int row = rows.getRowAt(index);
+        String value = switch (column) {
+            case NAME -> store.name(row);
+            case NUMBER -> store.isLive(row) ? store.numberText(row) : null;
+            case POSITION -> store.position(row);
+            case ROLE -> store.role(row);
+            case TYPE -> store.type(row);
+            default -> throw new IndexOutOfBoundsException("Column " + column);
+        };
+        return value == null ? "" : value;
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        fireTableRowsInserted(e.getIndex0(), e.getIndex1());
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        fireTableRowsDeleted(e.getIndex0(), e.getIndex1());
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        fireTableRowsUpdated(e.getIndex0(), e.getIndex1());
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.JList;
+import javax.swing.ListSelectionModel;
+
+/**
+ * A filtered, sorted roster list. Filter changes query through a FilterPipeline;
+ * roster changes move just the changed rows to their sorted place.
+ */
+public class RosterView implements RosterRepository.Listener {
+
+    /** Batches larger than this are cheaper to apply by querying again */
+    static final int MAX_INCREMENTAL = 64;
+
+    private record Result(int[] rows, RosterStore.FacetCounts counts) {
+    }
+
+    private record Counted(RosterQueryEngine.Query query, RosterStore.FacetCounts counts) {
+    }
+
+    private final RosterQueryEngine engine;
+    private final RosterStore store;
+    private final ListSelectionModel selection;
+    private final RowListModel model;
+    private final FilterPipeline<Result> filter;
+    private final FilterPipeline<Counted> recount;
+    private Consumer<RosterStore.FacetCounts> countsListener;
+    private Consumer<Throwable> failureListener = Throwable::printStackTrace;
+    private RosterQueryEngine.Query started;
+    private RosterQueryEngine.Query shown;
+    private boolean querying;
+
+    /**
+     * @param inputs called on the EDT to read the view's filter controls
+     */
+    public RosterView(RosterQueryEngine engine, JList<Integer> list, RowListModel model, int debounceMillis,
+                      Supplier<RosterQueryEngine.Query> inputs) {
+        this(engine, list.getSelectionModel(), model, debounceMillis, inputs);
+    }
+
+    /**
+     * For a view other than a JList; selection indexes are positions in the model
+     */
+    public RosterView(RosterQueryEngine engine, ListSelectionModel selection, RowListModel model,
+                      int debounceMillis, Supplier<RosterQueryEngine.Query> inputs) {
+        this.engine = engine;
+        this.store = engine.store();
+        this.selection = selection;
+        this.model = model;
+        this.filter = new FilterPipeline<>(debounceMillis, () -> {
+            RosterQueryEngine.Query q = inputs.get();
+            started = q;
+            querying = true;
+            boolean counting = countsListener != null;
+            return () -> new Result(engine.rows(q), counting ? engine.counts(q) : null);
+        }, result -> {
+            shown = started;
+            querying = false;
+            replaceContents(result.rows().clone());
+            if (result.counts() != null && countsListener != null) countsListener.accept(result.counts());
+        }, error -> {
+            querying = false;
+            failureListener.accept(error);
+        });
+        this.recount = new FilterPipeline<>(debounceMillis, () -> {
+            RosterQueryEngine.Query q = shown;
+            return () -> new Counted(q, engine.counts(q));
+        }, counted -> {
+            if (counted.query() == shown && !querying && countsListener != null) {
+                countsListener.accept(counted.counts());
+            }
+        }, error -> failureListener.accept(error));
+    }
+
+    /**
+     * Report facet counts on the EDT; set before the first refresh()
+     */
+    public void onFacetCounts(Consumer<RosterStore.FacetCounts> listener) {
+        countsListener = listener;
+    }
+
+    /**
+     * Report failed queries on the EDT
+     */
+    public void onQueryFailed(Consumer<Throwable> listener) {
+        failureListener = listener;
+    }
+
+    /**
+     * Query again after the debounce period
+     */
+    public void request() {
+        filter.request();
+    }
+
+    public void refresh() {
+        filter.runNow();
+    }
+
+    public void dispose() {
+        filter.dispose();
+        recount.dispose();
+    }
+
+    @Override
+    public void rosterChanged(List<RosterChange> changes) {
+        RosterQueryEngine.Query q = shown;
+        if (q == null || querying || changes.size() > MAX_INCREMENTAL) {
+            refresh();
+            return;
+        }
+        int[] changed = new int[changes.size()];
+        int n = 0;
+        for (RosterChange change : changes) {
+            if (change.kind() == RosterChange.Kind.RESET) {
+                refresh();
+                return;
+            }
+            if (!contains(changed, n, change.row())) changed[n++] = change.row();
+        }
+        // Take changed rows out first so the rest stay in order for binary search.
+        boolean[] selected = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int index = model.indexOf(changed[i]);
+            if (index < 0) continue;
+            selected[i] = selection.isSelectedIndex(index);
+            model.removeRowAt(index);
+        }
+        // Rows changed by a later batch may be out of order; the store refuses and we requery.
+        long version = changes.get(changes.size() - 1).version();
+        for (int i = 0; i < n; i++) {
+            int row = changed[i];
+            if (!store.matches(row, q.text(), q.role(), q.type())) continue;
+            int index = store.insertionPoint(model.rows(), model.getSize(), row, q.sortKey(), version);
+            if (index < 0) {
+                refresh();
+                return;
+            }
+            model.insertRow(index, row);
+            if (selected[i]) selection.addSelectionInterval(index, index);
+        }
+        if (countsListener != null) recount.request();
+    }
+
+    private void replaceContents(int[] rows) {
+        int selectedIndex = selection.getMinSelectionIndex();
+        int selectedRow = selectedIndex >= 0 && selectedIndex < model.getSize() ? model.getRowAt(selectedIndex) : -1;
+        model.setRows(rows);
+        int newIndex = selectedRow < 0 ? -1 : model.indexOf(selectedRow);
+        if (newIndex >= 0) {
+            selection.setSelectionInterval(newIndex, newIndex);
+        } else {
+            selection.clearSelection();
+        }
+    }
+
+    private static boolean contains(int[] rows, int count, int row) {
+        for (int i = 0; i < count; i++) {
+            if (rows[i] == row) return true;
+        }
+        return false;
+    }
+}
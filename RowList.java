@@ -0,0 +1,73 @@
+import java.util.Arrays;
+
+/**
+ * Sorted set of row ids; new rows have the highest id, so inserts usually append
+ */
+class RowList {
+    private int[] rows;
+    private int size;
+
+    RowList() {
+        this.rows = new int[4];
+    }
+
+    private RowList(int[] rows, int size) {
+        this.rows = rows;
+        this.size = size;
+    }
+
+    /**
+     * A list over ids already sorted without duplicates; the list owns the array
+     */
+    static RowList of(int[] sorted) {
+        return sorted.length == 0 ? new RowList() : new RowList(sorted, sorted.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int i) {
+        return rows[i];
+    }
+
+    void insert(int row) {
+        int i = size == 0 || rows[size - 1] < row ? size : Arrays.binarySearch(rows, 0, size, row);
+        if (i >= 0 && i < size) return;
+        if (i < 0) i = -i - 1;
+        if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+        System.arraycopy(rows, i, rows, i + 1, size - i);
+        rows[i] = row;
+        size++;
+    }
+
+    void delete(int row) {
+        int i = Arrays.binarySearch(rows, 0, size, row);
+        if (i < 0) return;
+        System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+        size--;
+        if (rows.length > 16 && size < rows.length / 4) rows = Arrays.copyOf(rows, rows.length / 2);
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(rows, size);
+    }
+
+    static RowList intersect(RowList a, RowList b) {
+        int[] out = new int[Math.max(4, Math.min(a.size, b.size))];
+        int i = 0, j = 0, n = 0;
+        while (i < a.size && j < b.size) {
+            int x = a.rows[i], y = b.rows[j];
+            if (x == y) {
+                out[n++] = x;
+                i++;
+                j++;
+            } else if (x < y) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return new RowList(out, n);
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.Arrays;
+import javax.swing.AbstractListModel;
+
+/**
+ * List model over an array of roster row ids. Replacing the contents fires
+ * events only for the span that changed.
+ */
+public class RowListModel extends AbstractListModel<Integer> {
+    private static final long serialVersionUID = 1L;
+    private static final int[] EMPTY = new int[0];
+    private int[] rows = EMPTY;
+    private int size;
+    /** Index of each row id, or -1; valid only while indexValid is set */
+    private int[] indexOfRow = EMPTY;
+    private boolean indexValid;
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public Integer getElementAt(int index) {
+        return getRowAt(index);
+    }
+
+    public int getRowAt(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        return rows[index];
+    }
+
+    /**
+     * The row's index in the list, or -1
+     */
+    public int indexOf(int row) {
+        if (!indexValid) buildIndex();
+        return row >= 0 && row < indexOfRow.length ? indexOfRow[row] : -1;
+    }
+
+    /**
+     * The backing array; only the first getSize() entries are rows
+     */
+    int[] rows() {
+        return rows;
+    }
+
+    /**
+     * Swap in new contents; the model owns the array afterwards
+     */
+    public void setRows(int[] newRows) {
+        int[] old = rows;
+        int oldSize = size;
+        rows = newRows;
+        size = newRows.length;
+        indexValid = false;
+        int common = Math.min(oldSize, size);
+        int prefix = 0;
+        while (prefix < common && old[prefix] == newRows[prefix]) prefix++;
+        int suffix = 0;
+        while (suffix < common - prefix
+                && old[oldSize - 1 - suffix] == newRows[size - 1 - suffix]) {
+            suffix++;
+        }
+        int oldMid = oldSize - prefix - suffix;
+        int newMid = size - prefix - suffix;
+        if (oldMid == newMid) {
+            if (oldMid > 0) fireContentsChanged(this, prefix, prefix + oldMid - 1);
+            return;
+        }
+        if (oldMid > 0) fireIntervalRemoved(this, prefix, prefix + oldMid - 1);
+        if (newMid > 0) fireIntervalAdded(this, prefix, prefix + newMid - 1);
+    }
+
+    public void insertRow(int index, int row) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        if (size == rows.length) rows = Arrays.copyOf(rows, Math.max(8, size * 2));
+        System.arraycopy(rows, index, rows, index + 1, size - index);
+        rows[index] = row;
+        size++;
+        if (indexValid) {
+            if (row >= indexOfRow.length) growIndex(row);
+            reindexFrom(index);
+        }
+        fireIntervalAdded(this, index, index);
+    }
+
+    public void removeRowAt(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        if (indexValid) indexOfRow[rows[index]] = -1;
+        System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+        size--;
+        if (indexValid) reindexFrom(index);
+        fireIntervalRemoved(this, index, index);
+    }
+
+    public void rowChanged(int index) {
+        fireContentsChanged(this, index, index);
+    }
+
+    private void buildIndex() {
+        int max = -1;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, rows[i]);
+        }
+        if (max >= indexOfRow.length) {
+            indexOfRow = new int[max + 1];
+        }
+        Arrays.fill(indexOfRow, -1);
+        reindexFrom(0);
+        indexValid = true;
+    }
+
+    private void growIndex(int row) {
+        int old = indexOfRow.length;
+        indexOfRow = Arrays.copyOf(indexOfRow, Math.max(row + 1, old * 2));
+        Arrays.fill(indexOfRow, old, indexOfRow.length, -1);
+    }
+
+    private void reindexFrom(int index) {
+        for (int i = index; i < size; i++) {
+            indexOfRow[rows[i]] = i;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import java.util.Arrays;
+
+/**
+ * Presorted permutation of live roster rows for one sort key, kept up to
+ * date as rows change so sorting a subset needs no key comparisons.
+ */
+class SortOrder {
+
+    /**
+     * Total order over row ids; ties must be broken by row id
+     */
+    interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    static final int MAX_PENDING = 64;
+
+    private final RowComparator cmp;
+    private int[] order;
+    private int size;
+    private int[] rank = new int[0];
+    private boolean rankStale = true;
+    private int pending;
+    private long[] marks = new long[0];
+
+    SortOrder(RowComparator cmp) {
+        this.cmp = cmp;
+    }
+
+    /**
+     * Record a new or re-keyed row, after its columns are set
+     */
+    void insert(int row) {
+        if (order == null) return;
+        if (++pending > MAX_PENDING) {
+            order = null;
+            return;
+        }
+        int i = search(row);
+        if (size == order.length) order = Arrays.copyOf(order, size * 2);
+        System.arraycopy(order, i, order, i + 1, size - i);
+        order[i] = row;
+        size++;
+        rankStale = true;
+    }
+
+    /**
+     * Forget a row, before its columns change
+     */
+    void delete(int row) {
+        if (order == null) return;
+        if (++pending > MAX_PENDING) {
+            order = null;
+            return;
+        }
+        int i = search(row);
+        if (i < size && order[i] == row) {
+            System.arraycopy(order, i + 1, order, i, size - i - 1);
+            size--;
+            rankStale = true;
+        }
+    }
+
+    /**
+     * Adopt a prebuilt ordering of every live row
+     */
+    void install(int[] rows) {
+        order = rows.length >= 4 ? rows : Arrays.copyOf(rows, 4);
+        size = rows.length;
+        pending = 0;
+        rankStale = true;
+    }
+
+    /**
+     * The given rows in this order; the input is left untouched
+     */
+    int[] sort(int[] rows, RosterStore store) {
+        ensureBuilt(store);
+        pending = 0;
+        int m = rows.length;
+        if (m <= 1) return rows.clone();
+        int log = 32 - Integer.numberOfLeadingZeros(m);
+        if ((long) m * log < size) {
+            ensureRanks(store.rowLimit());
+            long[] keyed = new long[m];
+            for (int i = 0; i < m; i++) {
+                keyed[i] = ((long) rank[rows[i]] << 32) | rows[i];
+            }
+            Arrays.sort(keyed);
+            int[] out = new int[m];
+            for (int i = 0; i < m; i++) {
+                out[i] = (int) keyed[i];
+            }
+            return out;
+        }
+        int words = (store.rowLimit() + 63) >>> 6;
+        if (marks.length < words) marks = new long[words];
+        for (int r : rows) {
+            marks[r >>> 6] |= 1L << r;
+        }
+        int[] out = new int[m];
+        int n = 0;
+        for (int i = 0; i < size && n < m; i++) {
+            int r = order[i];
+            if ((marks[r >>> 6] & (1L << r)) != 0) out[n++] = r;
+        }
+        for (int r : rows) {
+            marks[r >>> 6] = 0;
+        }
+        return out;
+    }
+
+    private void ensureBuilt(RosterStore store) {
+        if (order != null) return;
+        int limit = store.rowLimit();
+        int[] live = new int[Math.max(4, store.size())];
+        int n = 0;
+        for (int r = 0; r < limit; r++) {
+            if (store.isLive(r)) live[n++] = r;
+        }
+        mergeSort(live, Arrays.copyOf(live, n), 0, n, cmp);
+        order = live;
+        size = n;
+        rankStale = true;
+    }
+
+    private void ensureRanks(int rowLimit) {
+        if (!rankStale && rank.length >= rowLimit) return;
+        if (rank.length < rowLimit) rank = new int[rowLimit];
+        for (int i = 0; i < size; i++) {
+            rank[order[i]] = i;
+        }
+        rankStale = false;
+    }
+
+    private int search(int row) {
+        return insertionPoint(order, size, row);
+    }
+
+    /**
+     * Index of the row in rows[0, count), or where it would be inserted
+     */
+    int insertionPoint(int[] rows, int count, int row) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cmp.compare(rows[mid], row) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Stable merge sort of dst[from, to) using src, holding the same values, as scratch
+     */
+    private static void mergeSort(int[] dst, int[] src, int from, int to, RowComparator cmp) {
+        if (to - from < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int v = dst[i];
+                int j = i - 1;
+                while (j >= from && cmp.compare(dst[j], v) > 0) {
+                    dst[j + 1] = dst[j];
+                    j--;
+                }
+                dst[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(src, dst, from, mid, cmp);
+        mergeSort(src, dst, mid, to, cmp);
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || (p < mid && cmp.compare(src[p], src[q]) <= 0)) dst[i] = src[p++];
+            else dst[i] = src[q++];
+        }
+    }
+}
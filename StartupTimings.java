@@ -0,0 +1,71 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Startup phase timings as offsets from JVM start. Printed when
+ * {@code eagles.startupTimings} is true and appended as CSV to the file
+ * named by {@code eagles.startupLog}
+ */
+public class StartupTimings {
+    private static final String HEADER = "Run,Phase,Start ms,End ms";
+    private static final DateTimeFormatter RUN_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final long origin = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private boolean reported;
+
+    public synchronized void begin(String phase) {
+        phases.put(phase, new long[]{elapsed(), -1});
+    }
+
+    public synchronized void end(String phase) {
+        long[] p = phases.get(phase);
+        if (p != null && p[1] < 0) p[1] = elapsed();
+    }
+
+    public synchronized boolean isDone(String phase) {
+        long[] p = phases.get(phase);
+        return p != null && p[1] >= 0;
+    }
+
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder("Startup timings (ms since JVM start):\n");
+        for (Map.Entry<String, long[]> e : phases.entrySet()) {
+            long[] p = e.getValue();
+            sb.append(String.format("  %-8s %6d - %6s%n", e.getKey(), p[0], p[1] < 0 ? "" : Long.toString(p[1])));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Print and log the report once, as the system properties ask
+     */
+    public void log() {
+        synchronized (this) {
+            if (reported) return;
+            reported = true;
+        }
+        if (Boolean.getBoolean("eagles.startupTimings")) System.out.print(report());
+        String file = System.getProperty("eagles.startupLog");
+        if (file == null) return;
+        String run = LocalDateTime.now().format(RUN_FORMAT);
+        try (CSVAppender out = new CSVAppender(Paths.get(file), HEADER)) {
+            synchronized (this) {
+                for (Map.Entry<String, long[]> e : phases.entrySet()) {
+                    out.append(run + "," + e.getKey() + "," + e.getValue()[0] + "," + e.getValue()[1]);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write startup log: " + e.getMessage());
+        }
+    }
+
+    private long elapsed() {
+        return System.currentTimeMillis() - origin;
+    }
+}
@@ -2,35 +2,41 @@ import java.io.*;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class UserInfoCSVHandler {
-    
+    private static final String HEADER = "Name,Email,Favorite Team,Login Date/Time";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Map<String, CSVAppender> APPENDERS = new ConcurrentHashMap<>();
+
     /**
      * Save user information to a CSV file
      */
     public static void saveUserInfo(String name, String email, String favoriteTeam, String filename) throws IOException {
-        boolean fileExists = Files.exists(Paths.get(filename));
-        
-        try (FileWriter fw = new FileWriter(filename, true);
-             PrintWriter writer = new PrintWriter(fw)) {
-            
-            // Write header if file doesn't exist
-            if (!fileExists) {
-                writer.println("Name,Email,Favorite Team,Login Date/Time");
-            }
-            
-            // Write user data with timestamp
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            String line = String.format("%s,%s,%s,%s",
-                escapeCSV(name),
-                escapeCSV(email),
-                escapeCSV(favoriteTeam),
-                timestamp
-            );
-            writer.println(line);
+        // Write user data with timestamp
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        String line = escapeCSV(name) + ',' + escapeCSV(email) + ',' + escapeCSV(favoriteTeam) + ',' + timestamp;
+        appenderFor(filename).appendAndWait(line);
+    }
+
+    /**
+     * Shared appender for a file; the header is written when the file is new
+     */
+    static CSVAppender appenderFor(String filename) throws IOException {
+        try {
+            return APPENDERS.computeIfAbsent(filename, f -> {
+                try {
+                    return new CSVAppender(Paths.get(f), HEADER);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
-    
+
     /**
      * Escape special characters in CSV fields
      */
@@ -41,4 +47,4 @@ public class UserInfoCSVHandler {
         }
         return value;
     }
-}
\ No newline at end of file
+}
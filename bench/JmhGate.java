@@ -0,0 +1,53 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Fails if a JMH CSV result regressed past the tolerance (default 0.15)
+ * against a baseline in throughput, p99 or allocation
+ * <pre>
+ * java -cp bench/target/benchmarks.jar JmhGate baseline.csv current.csv [tolerance]
+ * </pre>
+ */
+public class JmhGate {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhGate baseline.csv current.csv [tolerance]");
+            System.exit(2);
+        }
+        Map<String, Double> baseline = load(Paths.get(args[0]));
+        Map<String, Double> current = load(Paths.get(args[1]));
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.15;
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Double> e : current.entrySet()) {
+            Double base = baseline.get(e.getKey());
+            if (base == null) continue;
+            String key = e.getKey();
+            double score = e.getValue();
+            boolean higherIsBetter = key.contains("|thrpt|") && !key.contains(":gc.");
+            boolean regressed = higherIsBetter ? score < base * (1 - tolerance) : score > base * (1 + tolerance);
+            if (regressed) failures.add(String.format("%s %.4g, baseline %.4g", key, score, base));
+        }
+        failures.forEach(f -> System.out.println("REGRESSION " + f));
+        System.out.println(failures.isEmpty() ? "No regressions." : failures.size() + " regressions.");
+        if (!failures.isEmpty()) System.exit(1);
+    }
+
+    private static Map<String, Double> load(Path file) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        RosterCSVReader.read(file, (cols, count, recordIndex) -> {
+            if (recordIndex == 0 || count < 7) return;
+            String name = cols[0];
+            String mode = cols[1];
+            boolean gated = mode.equals("thrpt") && !name.contains(":")
+                    || mode.equals("sample") && name.endsWith(":p0.99")
+                    || mode.equals("thrpt") && name.endsWith(":gc.alloc.rate.norm");
+            if (!gated) return;
+            String params = String.join(",", Arrays.asList(cols).subList(7, count));
+            scores.put(name + "|" + mode + "|" + params, Double.parseDouble(cols[4]));
+        });
+        return scores;
+    }
+}
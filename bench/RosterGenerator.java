@@ -0,0 +1,177 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Seeded generator of synthetic rosters for scale testing; the same seed
+ * always gives the same rows.
+ * <pre>
+ * java -cp out RosterGenerator --rows 5000000 --seed 7 --mix 80,10,10 --dup-rate 0.05 --out big.csv
+ * </pre>
+ */
+public class RosterGenerator {
+    private static final String[] FIRST = {
+            "Jalen", "Saquon", "DeVonta", "Dallas", "Lane", "Jordan", "Landon", "Cam", "Kenneth", "Darius",
+            "Brandon", "Nolan", "Zack", "Nakobe", "Reed", "Quinyon", "Cooper", "Jake", "Britain", "Tanner",
+            "Will", "Tank", "Grant", "Kylen", "Tyler", "Drew", "Brett", "Milton", "Josh", "Moro",
+            "Jihaad", "Azeez", "Marcus", "Andre'", "Sydney", "Kelee", "Ben", "Nick", "Vic", "Kevin"};
+    private static final String[] LAST = {
+            "Hurts", "Barkley", "Smith", "Goedert", "Johnson", "Mailata", "Dickerson", "Jurgens", "Carter", "Williams",
+            "Graham", "Slay", "Baun", "Dean", "Blankenship", "Mitchell", "DeJean", "Elliott", "Covey", "McKee",
+            "Shipley", "Bigsby", "Calcaterra", "Granson", "Steen", "Kendall", "Toth", "Jackson", "Sweat", "Ojomo",
+            "Campbell", "Davis", "Epps", "Sam", "Brown", "Ringo", "VanSumeren", "Sirianni", "Fangio", "Patullo"};
+    private static final String[] OFFENSE = {
+            "Quarterback", "Runningback", "Wide Receiver", "Tight End", "Offensive Tackle", "Guard", "Center"};
+    private static final String[] DEFENSE = {
+            "Defensive End", "Defensive Tackle", "Linebacker", "Cornerback", "Safety", "Defensive Back"};
+    private static final String[] COACHES = {
+            "Head Coach", "Offensive Coordinator", "Defensive Coordinator", "Quarterbacks Coach",
+            "Wide Receivers Coach", "Tight Ends Coach", "Cornerbacks Coach", "Inside Linebackers Coach"};
+    private static final String[] COACH_TYPES = {"N/A", "Offense", "Defense", "Offense", "Offense", "Offense",
+            "Defense", "Defense"};
+    private static final String[] STAFF = {
+            "General Manager", "Scout", "Pro Scout", "Video Director", "Business Manager",
+            "Head Team Physician", "Software Developer", "Football Operations Coordinator"};
+    private static final String[] SCHOOLS = {
+            "Oklahoma", "Penn State", "Alabama", "Ohio State", "Georgia", "Clemson", "Stanford", "Utah",
+            "Boston College", "SMU", "Nebraska", "Auburn", "Ole Miss", "Army", "South Dakota State", "Michigan"};
+
+    private final Random random;
+    private final int playerWeight;
+    private final int coachWeight;
+    private final int staffWeight;
+    private final double duplicateNumberRate;
+    private final int[] deck = new int[100];
+    private int dealt;
+
+    /**
+     * 80/10/10 player/coach/staff mix, no duplicate numbers
+     */
+    public RosterGenerator(long seed) {
+        this(seed, 80, 10, 10, 0.0);
+    }
+
+    /**
+     * @param duplicateNumberRate chance in [0, 1] that a player reuses a number
+     */
+    public RosterGenerator(long seed, int playerWeight, int coachWeight, int staffWeight,
+                           double duplicateNumberRate) {
+        if (playerWeight < 0 || coachWeight < 0 || staffWeight < 0
+                || playerWeight + coachWeight + staffWeight == 0) {
+            throw new IllegalArgumentException("Role weights must be non-negative and not all zero");
+        }
+        if (duplicateNumberRate < 0 || duplicateNumberRate > 1) {
+            throw new IllegalArgumentException("Duplicate number rate must be between 0 and 1");
+        }
+        this.random = new Random(seed);
+        this.playerWeight = playerWeight;
+        this.coachWeight = coachWeight;
+        this.staffWeight = staffWeight;
+        this.duplicateNumberRate = duplicateNumberRate;
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = i;
+        }
+    }
+
+    /**
+     * Next row as Name, Role, Position, Number, Offense/Defense
+     */
+    public String[] next() {
+        String name = nextName();
+        int pick = random.nextInt(playerWeight + coachWeight + staffWeight);
+        if (pick < playerWeight) {
+            boolean offense = random.nextBoolean();
+            String[] positions = offense ? OFFENSE : DEFENSE;
+            return new String[]{name, "Player", positions[random.nextInt(positions.length)],
+                    Integer.toString(nextNumber()), offense ? "Offense" : "Defense"};
+        }
+        if (pick < playerWeight + coachWeight) {
+            int c = random.nextInt(COACHES.length);
+            return new String[]{name, "Coach", COACHES[c], "N/A", COACH_TYPES[c]};
+        }
+        return new String[]{name, "Staff", STAFF[random.nextInt(STAFF.length)], "N/A", "N/A"};
+    }
+
+    public void writeCsv(Path file, long rows) throws IOException {
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+            writeCsv(out, rows);
+        }
+    }
+
+    public void writeCsv(Writer out, long rows) throws IOException {
+        out.write(RosterJournal.HEADER);
+        out.write('\n');
+        for (long n = 0; n < rows; n++) {
+            String[] row = next();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) out.write(',');
+                out.write(row[i]);
+            }
+            out.write('\n');
+        }
+    }
+
+    public Team buildTeam(String name, int players) {
+        Team team = new Team(name, nextName(), "Lincoln Financial Field", "Synthetic roster");
+        for (int n = 0; n < players; n++) {
+            boolean offense = random.nextBoolean();
+            String[] positions = offense ? OFFENSE : DEFENSE;
+            team.addPlayer(new Player(nextNumber(), nextName(), positions[random.nextInt(positions.length)],
+                    SCHOOLS[random.nextInt(SCHOOLS.length)]));
+        }
+        return team;
+    }
+
+    private String nextName() {
+        return FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)];
+    }
+
+    private int nextNumber() {
+        if (dealt > 0 && random.nextDouble() < duplicateNumberRate) {
+            return deck[random.nextInt(dealt)];
+        }
+        if (dealt == deck.length) dealt = 0;
+        int i = dealt + random.nextInt(deck.length - dealt);
+        int number = deck[i];
+        deck[i] = deck[dealt];
+        deck[dealt++] = number;
+        return number;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long rows = 1000, seed = 1;
+        int[] mix = {80, 10, 10};
+        double dupRate = 0.0;
+        String out = "-";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rows" -> rows = Long.parseLong(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--mix" -> {
+                    String[] parts = args[++i].split(",");
+                    for (int k = 0; k < 3; k++) mix[k] = Integer.parseInt(parts[k].trim());
+                }
+                case "--dup-rate" -> dupRate = Double.parseDouble(args[++i]);
+                case "--out" -> out = args[++i];
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        RosterGenerator generator = new RosterGenerator(seed, mix[0], mix[1], mix[2], dupRate);
+        if (out.equals("-")) {
+            Writer w = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            generator.writeCsv(w, rows);
+            w.flush();
+        } else {
+            generator.writeCsv(Paths.get(out), rows);
+        }
+    }
+}
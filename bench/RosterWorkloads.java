@@ -0,0 +1,175 @@
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import javax.swing.JList;
+
+/**
+ * Benchmarked roster operations over a synthetic roster of a given size.
+ * The JMH benchmarks reach it through {@link jmh.Workloads}, since they
+ * must live in a named package
+ */
+public class RosterWorkloads implements jmh.Workloads {
+    private static final String[] QUERIES = {"", "ja", "smi", "back", "quarterback", "zzz"};
+    private static final String[] ROLE_FILTERS = {"All Roles", "Player", "Coach", "Staff"};
+    private static final String[] TYPE_FILTERS = {"All Types", "Offense", "Defense"};
+    private static final String[] SORTS = {"Alphabetical", "Jersey Number", "Position"};
+    private static final int VISIBLE_CELLS = 40;
+
+    private final int size;
+    private final Path dir;
+    private final Path csv;
+    private final EaglesRosterManager manager;
+    private final RosterStore roster;
+    private final int[] all;
+    private final Map<String, Operation> ops = new HashMap<>();
+    private RosterJournal journal;
+
+    public RosterWorkloads(int size) throws IOException {
+        this.size = size;
+        this.dir = Files.createTempDirectory("roster-bench");
+        this.csv = dir.resolve("team-" + size + ".csv");
+        new RosterGenerator(42L, 80, 10, 10, 0.05).writeCsv(csv, size);
+        this.manager = new EaglesRosterManager();
+        manager.loadPlayersFromCSV(csv.toString());
+        this.roster = manager.getRoster();
+        this.all = roster.query("", null, null);
+    }
+
+    @Override
+    public Operation operation(String name) throws IOException {
+        Operation op = ops.get(name);
+        if (op == null) {
+            op = create(name);
+            ops.put(name, op);
+        }
+        return op;
+    }
+
+    private Operation create(String name) throws IOException {
+        switch (name) {
+            case "load" -> {
+                return i -> {
+                    EaglesRosterManager m = new EaglesRosterManager();
+                    m.loadPlayersFromCSV(csv.toString());
+                    return m.getRoster();
+                };
+            }
+            case "load.csv" -> {
+                return i -> {
+                    RosterStore store = new RosterStore();
+                    new RosterLoader(csv, store, null).loadAll();
+                    return store;
+                };
+            }
+            case "filter" -> {
+                // Clear the shared cache so every run is a real query.
+                RosterQueryEngine queries = manager.getQueryEngine();
+                return i -> {
+                    queries.clear();
+                    return runQuery(i);
+                };
+            }
+            case "filter.shared" -> {
+                return this::runQuery;
+            }
+            case "facets" -> {
+                String[] roles = {null, "Player", "Coach", "Staff"};
+                String[] types = {null, "Offense", "Defense"};
+                return i -> {
+                    String role = roles[i % roles.length];
+                    String type = types[(i / roles.length) % types.length];
+                    return roster.select(role, type).length + roster.facetCounts("", role, type, null).roles().size();
+                };
+            }
+            case "sort" -> {
+                RosterStore.SortKey[] keys = RosterStore.SortKey.values();
+                return i -> roster.sort(all, keys[i % keys.length]);
+            }
+            case "render" -> {
+                return renderOp();
+            }
+            case "persist.append" -> {
+                RosterJournal j = journal();
+                return i -> {
+                    int row = all[i % all.length];
+                    String[] old = roster.row(row);
+                    String[] edited = old.clone();
+                    edited[0] = old[0] + " " + i;
+                    j.recordUpdate(old, edited);
+                    return edited;
+                };
+            }
+            case "persist.compact" -> {
+                RosterJournal j = journal();
+                return i -> {
+                    j.compactNow(roster.rows());
+                    return j;
+                };
+            }
+            case "team.listPlayers" -> {
+                Team team = new RosterGenerator(42L, 1, 0, 0, 0.05).buildTeam("Philadelphia Eagles", size);
+                return i -> team.listPlayers();
+            }
+            default -> throw new IllegalArgumentException("Unknown benchmark: " + name);
+        }
+    }
+
+    private Object runQuery(int i) {
+        return manager.runQuery(
+                QUERIES[i % QUERIES.length],
+                ROLE_FILTERS[(i / QUERIES.length) % ROLE_FILTERS.length],
+                TYPE_FILTERS[i % TYPE_FILTERS.length],
+                SORTS[i % SORTS.length]);
+    }
+
+    private RosterJournal journal() throws IOException {
+        if (journal == null) {
+            Path base = dir.resolve("journal-" + size + ".csv");
+            Files.copy(csv, base, StandardCopyOption.REPLACE_EXISTING);
+            journal = new RosterJournal(base, Integer.MAX_VALUE);
+            journal.compactNow(roster.rows());
+        }
+        return journal;
+    }
+
+    /**
+     * Paint one screenful of cells into an offscreen image
+     */
+    private Operation renderOp() {
+        int[] rows = all;
+        RowListModel model = new RowListModel();
+        model.setRows(rows.clone());
+        JList<Integer> list = new JList<>(model);
+        RosterCellRenderer renderer = new RosterCellRenderer(roster, Color.DARK_GRAY, Color.GRAY, Color.WHITE);
+        renderer.install(list);
+        Component prototype = renderer.getListCellRendererComponent(
+                list, RosterCellRenderer.PROTOTYPE_ROW, -1, false, false);
+        int width = prototype.getPreferredSize().width;
+        int height = prototype.getPreferredSize().height;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        return i -> {
+            int first = (i * VISIBLE_CELLS) % Math.max(1, rows.length);
+            int last = Math.min(rows.length, first + VISIBLE_CELLS);
+            for (int index = first; index < last; index++) {
+                Component c = renderer.getListCellRendererComponent(
+                        list, model.getElementAt(index), index, index == first, false);
+                c.setBounds(0, 0, width, height);
+                c.paint(g);
+            }
+            return image;
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journal != null) journal.close();
+        try (var paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JMH benchmarks for the roster hot paths; see bench/pom.xml to build and run them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class RosterJmh {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"load", "load.csv", "filter", "filter.shared", "facets", "sort", "render",
+            "persist.append", "persist.compact", "team.listPlayers"})
+    public String op;
+
+    private Workloads workloads;
+    private Workloads.Operation operation;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workloads = (Workloads) Class.forName("RosterWorkloads").getConstructor(int.class).newInstance(size);
+        operation = workloads.operation(op);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        workloads.close();
+    }
+
+    @Benchmark
+    public Object run() throws Exception {
+        return operation.run(iteration++);
+    }
+}
@@ -0,0 +1,16 @@
+package jmh;
+
+/**
+ * Roster operations the JMH benchmarks call, implemented by RosterWorkloads
+ */
+public interface Workloads extends AutoCloseable {
+
+    /**
+     * One benchmark operation; the result is consumed so the work is kept
+     */
+    interface Operation {
+        Object run(int iteration) throws Exception;
+    }
+
+    Operation operation(String name) throws Exception;
+}
@@ -0,0 +1,116 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Players keyed by jersey number without boxing. Numbers 0-99 use a dense
+ * array, others an open-addressing table; shared numbers keep every player
+ */
+class JerseyIndex {
+    static final int DENSE = 100;
+
+    private final Player[][] dense = new Player[DENSE][];
+    private final int[] denseCounts = new int[DENSE];
+    private int[] keys = new int[8];
+    private Player[][] buckets = new Player[8][];
+    private int[] counts = new int[8];
+    private int overflowUsed;
+    private int size;
+
+    void add(Player player) {
+        int number = player.getNumber();
+        if (number >= 0 && number < DENSE) {
+            dense[number] = append(dense[number], denseCounts[number]++, player);
+        } else {
+            if ((overflowUsed + 1) * 2 > keys.length) rehash(keys.length * 2);
+            int slot = slot(number);
+            if (buckets[slot] == null) {
+                keys[slot] = number;
+                overflowUsed++;
+            }
+            buckets[slot] = append(buckets[slot], counts[slot]++, player);
+        }
+        size++;
+    }
+
+    int count(int number) {
+        if (number >= 0 && number < DENSE) return denseCounts[number];
+        int slot = slot(number);
+        return buckets[slot] == null ? 0 : counts[slot];
+    }
+
+    /**
+     * The i-th player added with the number, for i below count(number)
+     */
+    Player get(int number, int i) {
+        if (number >= 0 && number < DENSE) return dense[number][i];
+        return buckets[slot(number)][i];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Visit everyone in number order, ties in the order added
+     */
+    void forEachByNumber(Consumer<Player> action) {
+        int[] sorted = new int[overflowUsed];
+        int n = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (buckets[slot] != null) sorted[n++] = keys[slot];
+        }
+        Arrays.sort(sorted);
+        int i = 0;
+        for (; i < n && sorted[i] < 0; i++) {
+            visit(buckets[slot(sorted[i])], count(sorted[i]), action);
+        }
+        for (int number = 0; number < DENSE; number++) {
+            visit(dense[number], denseCounts[number], action);
+        }
+        for (; i < n; i++) {
+            visit(buckets[slot(sorted[i])], count(sorted[i]), action);
+        }
+    }
+
+    private static void visit(Player[] bucket, int count, Consumer<Player> action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(bucket[i]);
+        }
+    }
+
+    private static Player[] append(Player[] bucket, int count, Player player) {
+        if (bucket == null) bucket = new Player[1];
+        else if (count == bucket.length) bucket = Arrays.copyOf(bucket, count * 2);
+        bucket[count] = player;
+        return bucket;
+    }
+
+    /**
+     * Slot holding the number, or the empty slot where it would go
+     */
+    private int slot(int number) {
+        int mask = keys.length - 1;
+        int h = number * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (buckets[slot] != null && keys[slot] != number) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Player[][] oldBuckets = buckets;
+        int[] oldCounts = counts;
+        keys = new int[capacity];
+        buckets = new Player[capacity][];
+        counts = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldBuckets[i] == null) continue;
+            int slot = slot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            buckets[slot] = oldBuckets[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+}
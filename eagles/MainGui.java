@@ -15,6 +15,8 @@ import javax.swing.event.DocumentListener;
  */
 public class MainGui {
     private final Team team;
+    private long statsVersion = -1;
+    private static final int STATS_REFRESH_MILLIS = 500;
     
     // Philadelphia Eagles Official Colors
     private static final Color MIDNIGHT_GREEN = new Color(0, 76, 84);      // Primary
@@ -215,9 +217,9 @@ public class MainGui {
         stats.setBackground(DARK_GREEN);
         stats.setForeground(WHITE);
         stats.setFont(new Font("Arial", Font.PLAIN, 13));
-        StringBuilder sb = new StringBuilder();
-        team.getStats().forEach((k, v) -> sb.append("  • ").append(k).append(": ").append(v).append("\n"));
-        stats.setText(sb.toString());
+        renderStats(stats);
+        // Stats may be fed from other threads; redraw only when they change.
+        new Timer(STATS_REFRESH_MILLIS, e -> renderStats(stats)).start();
         stats.setBorder(new EmptyBorder(5, 5, 5, 5));
         
         JScrollPane statsScroll = new JScrollPane(stats);
@@ -274,6 +276,16 @@ public class MainGui {
         frame.setVisible(true);
     }
 
+    private void renderStats(JTextArea area) {
+        TeamStats stats = team.getStats();
+        long version = stats.version();
+        if (version == statsVersion) return;
+        statsVersion = version;
+        StringBuilder sb = new StringBuilder();
+        stats.forEach((name, stat) -> sb.append("  • ").append(name).append(": ").append(stat).append("\n"));
+        area.setText(sb.toString());
+    }
+
     private String dumpPlayer(Player p) {
         StringBuilder sb = new StringBuilder();
         sb.append("═══════════════════════════════════════\n");
@@ -8,16 +8,17 @@ public class Team {
     private final String coach;
     private final String stadium;
     private final String description;
-    private final Map<Integer, Player> players;
-    private final Map<String, Object> stats;
+    private final JerseyIndex players;
+    private final TeamStats stats;
+    private List<Player> sortedPlayers;
 
     public Team(String name, String coach, String stadium, String description) {
         this.name = name;
         this.coach = coach;
         this.stadium = stadium;
         this.description = description;
-        this.players = new HashMap<>();
-        this.stats = new LinkedHashMap<>();
+        this.players = new JerseyIndex();
+        this.stats = new TeamStats();
     }
 
     public String getName() {
@@ -36,30 +37,65 @@ public class Team {
         return description;
     }
 
+    /**
+     * Add a player; players may share a number
+     */
     public void addPlayer(Player player) {
-        players.put(player.getNumber(), player);
+        players.add(player);
+        sortedPlayers = null;
     }
 
+    /**
+     * The first player added with the number, or null
+     */
     public Player getPlayer(int number) {
-        return players.get(number);
+        return players.count(number) == 0 ? null : players.get(number, 0);
     }
 
-    public List<Player> listPlayers() {
-        List<Player> list = new ArrayList<>(players.values());
-        list.sort(Comparator.comparingInt(Player::getNumber));
+    /**
+     * Everyone wearing the number, in the order added
+     */
+    public List<Player> getPlayers(int number) {
+        int count = players.count(number);
+        List<Player> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(players.get(number, i));
+        }
         return list;
     }
 
-    public void setStat(String key, Object value) {
-        stats.put(key, value);
+    /**
+     * Players in number order; an unmodifiable list shared until the roster changes
+     */
+    public List<Player> listPlayers() {
+        List<Player> sorted = sortedPlayers;
+        if (sorted == null) {
+            List<Player> list = new ArrayList<>(players.size());
+            players.forEachByNumber(list::add);
+            sorted = Collections.unmodifiableList(list);
+            sortedPlayers = sorted;
+        }
+        return sorted;
+    }
+
+    public void setStat(String key, long value) {
+        stats.counter(key).set(value);
+    }
+
+    public void setStat(String key, double value) {
+        stats.gauge(key).set(value);
     }
 
-    public Object getStat(String key) {
-        return stats.get(key);
+    public Number getStat(String key) {
+        TeamStats.Stat stat = stats.get(key);
+        return stat == null ? null : stat.value();
     }
 
-    public Map<String, Object> getStats() {
-        return new LinkedHashMap<>(stats);
+    /**
+     * The live statistics
+     */
+    public TeamStats getStats() {
+        return stats;
     }
 
     public void printSummary() {
@@ -69,7 +105,7 @@ public class Team {
         System.out.println("Description: " + description);
         System.out.println("Players: " + players.size());
         System.out.println("Stats:");
-        stats.forEach((k, v) -> System.out.println("  " + k + ": " + v));
+        stats.forEach((name, stat) -> System.out.println("  " + name + ": " + stat));
     }
 
     public void printRoster() {
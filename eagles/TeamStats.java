@@ -0,0 +1,159 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named team statistics as lock-free counters and gauges, updatable from any
+ * thread; version() lets a view skip redraws when nothing changed.
+ */
+public class TeamStats {
+
+    public interface Visitor {
+        void visit(String name, Stat stat);
+    }
+
+    public abstract static class Stat {
+        final String name;
+        final AtomicLong version;
+
+        Stat(String name, AtomicLong version) {
+            this.name = name;
+            this.version = version;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public abstract Number value();
+
+        @Override
+        public String toString() {
+            return value().toString();
+        }
+    }
+
+    /**
+     * Whole-number statistic such as wins or touchdowns
+     */
+    public static final class Counter extends Stat {
+        private final AtomicLong value = new AtomicLong();
+
+        Counter(String name, AtomicLong version) {
+            super(name, version);
+        }
+
+        public long get() {
+            return value.get();
+        }
+
+        public void set(long v) {
+            value.set(v);
+            version.incrementAndGet();
+        }
+
+        public void add(long delta) {
+            value.addAndGet(delta);
+            version.incrementAndGet();
+        }
+
+        public void increment() {
+            add(1);
+        }
+
+        @Override
+        public Number value() {
+            return get();
+        }
+    }
+
+    /**
+     * Decimal statistic such as points per game
+     */
+    public static final class Gauge extends Stat {
+        private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+        Gauge(String name, AtomicLong version) {
+            super(name, version);
+        }
+
+        public double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+
+        public void set(double v) {
+            bits.set(Double.doubleToRawLongBits(v));
+            version.incrementAndGet();
+        }
+
+        public void add(double delta) {
+            long prev, next;
+            do {
+                prev = bits.get();
+                next = Double.doubleToRawLongBits(Double.longBitsToDouble(prev) + delta);
+            } while (!bits.compareAndSet(prev, next));
+            version.incrementAndGet();
+        }
+
+        @Override
+        public Number value() {
+            return get();
+        }
+    }
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Stat[] stats = new Stat[0];
+
+    /**
+     * The counter with the given name, registered on first use
+     */
+    public Counter counter(String name) {
+        Stat stat = get(name);
+        if (stat == null) stat = register(name, new Counter(name, version));
+        if (!(stat instanceof Counter)) throw new IllegalArgumentException(name + " is not a counter");
+        return (Counter) stat;
+    }
+
+    /**
+     * The gauge with the given name, registered on first use
+     */
+    public Gauge gauge(String name) {
+        Stat stat = get(name);
+        if (stat == null) stat = register(name, new Gauge(name, version));
+        if (!(stat instanceof Gauge)) throw new IllegalArgumentException(name + " is not a gauge");
+        return (Gauge) stat;
+    }
+
+    public Stat get(String name) {
+        for (Stat stat : stats) {
+            if (stat.name.equals(name)) return stat;
+        }
+        return null;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (Stat stat : stats) {
+            visitor.visit(stat.name, stat);
+        }
+    }
+
+    public int size() {
+        return stats.length;
+    }
+
+    /**
+     * Count of updates and registrations so far
+     */
+    public long version() {
+        return version.get();
+    }
+
+    private synchronized Stat register(String name, Stat stat) {
+        Stat existing = get(name);
+        if (existing != null) return existing;
+        Stat[] grown = Arrays.copyOf(stats, stats.length + 1);
+        grown[grown.length - 1] = stat;
+        stats = grown;
+        version.incrementAndGet();
+        return stat;
+    }
+}